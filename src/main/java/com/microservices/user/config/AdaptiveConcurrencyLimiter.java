@@ -0,0 +1,95 @@
+package com.microservices.user.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit adjusted from observed latency (additive increase, multiplicative decrease):
+ * every fast call while the limit is in use raises it by {@code 1 / limit}, i.e. about one per round trip,
+ * every slow or failed call multiplies it by the backoff ratio.
+ * Calls beyond the limit are rejected instead of queued, so that callers fail fast while the remote side is saturated.
+ */
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejections = new AtomicLong();
+    private volatile double limit; // written under this
+
+    public AdaptiveConcurrencyLimiter(String name, KeycloakConfigurationProperties.ConcurrencyLimit properties) {
+        this.name = name;
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.latencyThresholdNanos = properties.getLatencyThreshold().toNanos();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.limit = Math.clamp(properties.getInitialLimit(), minLimit, maxLimit);
+    }
+
+    /**
+     * Take a slot, released by {@link #onSuccess(long)} or {@link #onFailure()}.
+     *
+     * @return {@code false} if the limit is reached.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            var current = inFlight.get();
+            if (current >= (int) limit) {
+                rejections.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    public void onSuccess(long latencyNanos) {
+        var concurrency = inFlight.getAndDecrement();
+        if (latencyNanos > latencyThresholdNanos) decrease();
+        // only grow a limit which is actually used, an idle service would otherwise reach the maximum
+        else if (concurrency * 2 >= limit) increase();
+    }
+
+    public void onFailure() {
+        inFlight.decrementAndGet();
+        decrease();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("keycloak.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("keycloak.concurrency.in.flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("name", name)
+                .register(registry);
+        FunctionCounter.builder("keycloak.concurrency.rejected", rejections, AtomicLong::get)
+                .tag("name", name)
+                .register(registry);
+    }
+
+    private synchronized void increase() {
+        limit = Math.min(maxLimit, limit + 1 / limit);
+    }
+
+    private synchronized void decrease() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+
+}
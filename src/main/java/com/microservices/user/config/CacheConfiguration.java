@@ -0,0 +1,13 @@
+package com.microservices.user.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches are configured with the {@code spring.cache} properties,
+ * their hit ratio, load time and evictions are published as cache metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+}
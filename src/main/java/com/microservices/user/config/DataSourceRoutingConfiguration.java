@@ -0,0 +1,80 @@
+package com.microservices.user.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+
+/**
+ * Routes read-only transactions ({@code @Transactional(readOnly = true)}) to read replicas,
+ * everything else to the primary {@code spring.datasource}.
+ * The lazy proxy only fetches a physical connection at the first statement,
+ * once the transaction has marked the connection read-only, and picks the pool accordingly.
+ * Committed data-changing statements on the primary open the read-your-writes window.
+ * Active only when {@code datasource.routing.replicas} is configured.
+ */
+@Configuration
+@ConditionalOnProperty("datasource.routing.replicas[0].url")
+public class DataSourceRoutingConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(
+            DataSourceProperties dataSourceProperties,
+            DataSourceRoutingConfigurationProperties properties,
+            HikariDataSource primaryDataSource,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        var replicas = new ArrayList<HikariDataSource>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            var replica = properties.getReplicas().get(i);
+            var dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null
+                    ? replica.getUsername() : dataSourceProperties.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null
+                    ? replica.getPassword() : dataSourceProperties.determinePassword());
+            dataSource.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+            dataSource.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+            dataSource.setReadOnly(true);
+            meterRegistry.ifAvailable(registry ->
+                    dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(dataSource);
+        }
+
+        return new ReplicaDataSource(
+                primaryDataSource,
+                replicas,
+                properties.getSelection(),
+                properties.getReadYourWritesWindow(),
+                properties.getHealthCheckInterval()
+        );
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        var dataSource = new LazyConnectionDataSourceProxy(
+                new WriteTrackingDataSource(primaryDataSource, replicaDataSource::markWrite));
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+}
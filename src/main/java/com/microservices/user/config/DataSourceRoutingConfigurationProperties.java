@@ -0,0 +1,63 @@
+package com.microservices.user.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("datasource.routing")
+public class DataSourceRoutingConfigurationProperties {
+
+    /**
+     * Read replicas of {@code spring.datasource}, read-only transactions are routed to them.
+     * Without replicas every transaction uses the primary.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+    private Selection selection = Selection.ROUND_ROBIN;
+    /**
+     * How often replicas are checked, an unhealthy replica is skipped until it passes a check again.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    /**
+     * How long after a transaction that changed data commits on this instance reads keep going to the primary,
+     * so that they, and the caches they fill, see the write despite replication lag.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(2);
+    /**
+     * Maximum size of each replica connection pool.
+     */
+    private int maximumPoolSize = 10;
+    /**
+     * How long a read waits for a replica connection before the replica is marked unhealthy
+     * and the read moves on to another replica or the primary.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+
+    public enum Selection {
+        ROUND_ROBIN, LEAST_CONNECTIONS
+    }
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String url;
+        /**
+         * Defaults to the primary username.
+         */
+        private String username;
+        /**
+         * Defaults to the primary password.
+         */
+        private String password;
+
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.microservices.user.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FlywayConfiguration {
+
+    /**
+     * Skips the migrations when the context is only refreshed ({@code spring.context.exit=onRefresh}),
+     * as in the class-data-sharing training run of the Dockerfile, which has no database.
+     * Checked at runtime because {@code spring.flyway.enabled} is fixed at build time by AOT processing.
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${spring.context.exit:}") String contextExit) {
+        return flyway -> {
+            if (!"onRefresh".equals(contextExit)) flyway.migrate();
+        };
+    }
+
+}
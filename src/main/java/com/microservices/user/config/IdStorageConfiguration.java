@@ -0,0 +1,39 @@
+package com.microservices.user.config;
+
+import com.microservices.user.entity.id.IdStorage;
+import com.microservices.user.entity.id.IdTypeContributor;
+import org.flywaydb.core.api.Location;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Column type of the ids, see {@link IdStorageConfigurationProperties}.
+ * With BINARY storage the migrations of db/migration-binary-ids, which convert the id columns, are applied too.
+ */
+@Configuration
+public class IdStorageConfiguration {
+
+    static final Location BINARY_IDS_MIGRATIONS = new Location("classpath:db/migration-binary-ids");
+
+    @Bean
+    public HibernatePropertiesCustomizer idStorageCustomizer(IdStorageConfigurationProperties properties) {
+        return hibernateProperties -> hibernateProperties.put(
+                IdTypeContributor.STORAGE_SETTING, properties.getStorage().name());
+    }
+
+    @Bean
+    public FlywayConfigurationCustomizer idStorageMigrationsCustomizer(IdStorageConfigurationProperties properties) {
+        return configuration -> {
+            if (properties.getStorage() != IdStorage.BINARY) return;
+            var locations = new ArrayList<>(List.of(configuration.getLocations()));
+            locations.add(BINARY_IDS_MIGRATIONS);
+            configuration.locations(locations.toArray(Location[]::new));
+        };
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.microservices.user.config;
+
+import com.microservices.user.entity.id.IdStorage;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("jpa.ids")
+public class IdStorageConfigurationProperties {
+
+    /**
+     * Column type of the user and domain ids. BINARY stores them in 16 instead of 36 bytes,
+     * which shrinks the primary keys, the join table and every secondary index (they all hold the primary key).
+     * Switching to BINARY migrates the existing ids once, there is no way back.
+     */
+    private IdStorage storage = IdStorage.VARCHAR;
+
+}
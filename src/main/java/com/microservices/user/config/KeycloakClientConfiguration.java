@@ -0,0 +1,122 @@
+package com.microservices.user.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class KeycloakClientConfiguration {
+
+    public static final String REQUEST_FACTORY = "keycloakRequestFactory";
+
+    /**
+     * Connection pool of the HTTP/1.1 client, the HTTP/2 client manages its own connections.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "keycloak.transport", name = "http2", havingValue = "false", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager keycloakConnectionManager(KeycloakConfigurationProperties properties) {
+        var transport = properties.getTransport();
+        var connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(transport.getConnectTimeout()))
+                .setSocketTimeout(Timeout.of(transport.getReadTimeout()))
+                .setTimeToLive(TimeValue.of(transport.getTimeToLive()))
+                .build();
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(transport.getMaxConnections())
+                .setMaxConnPerRoute(transport.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+    }
+
+    @Bean
+    public KeycloakResilienceInterceptor keycloakResilienceInterceptor(KeycloakConfigurationProperties properties) {
+        return new KeycloakResilienceInterceptor(properties.getResilience());
+    }
+
+    @Bean
+    public KeycloakMetricsInterceptor keycloakMetricsInterceptor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new KeycloakMetricsInterceptor(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    /**
+     * Request factory of every Keycloak client, each request is timed by the {@link KeycloakMetricsInterceptor},
+     * rejections included, then passes the {@link KeycloakResilienceInterceptor}.
+     */
+    @Bean(REQUEST_FACTORY)
+    public ClientHttpRequestFactory keycloakRequestFactory(
+            KeycloakConfigurationProperties properties,
+            ObjectProvider<PoolingHttpClientConnectionManager> keycloakConnectionManager,
+            KeycloakMetricsInterceptor keycloakMetricsInterceptor,
+            KeycloakResilienceInterceptor keycloakResilienceInterceptor,
+            Environment environment
+    ) {
+        return new InterceptingClientHttpRequestFactory(
+                createRequestFactory(properties, keycloakConnectionManager, environment),
+                List.of(keycloakMetricsInterceptor, keycloakResilienceInterceptor)
+        );
+    }
+
+    /**
+     * Publish leased, available and pending connections of the Keycloak pool.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "keycloak.transport", name = "http2", havingValue = "false", matchIfMissing = true)
+    public MeterBinder keycloakConnectionPoolMetrics(PoolingHttpClientConnectionManager keycloakConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(keycloakConnectionManager, "keycloak");
+    }
+
+    private ClientHttpRequestFactory createRequestFactory(
+            KeycloakConfigurationProperties properties,
+            ObjectProvider<PoolingHttpClientConnectionManager> keycloakConnectionManager,
+            Environment environment
+    ) {
+        var transport = properties.getTransport();
+        if (transport.isHttp2()) {
+            var builder = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(transport.getConnectTimeout());
+            if (Threading.VIRTUAL.isActive(environment))
+                builder.executor(Executors.newVirtualThreadPerTaskExecutor());
+            var httpClient = builder.build();
+            var requestFactory = new JdkClientHttpRequestFactory(httpClient);
+            requestFactory.setReadTimeout(transport.getReadTimeout());
+            return requestFactory;
+        }
+
+        var requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(transport.getConnectionRequestTimeout()))
+                .setResponseTimeout(Timeout.of(transport.getReadTimeout()))
+                .build();
+        var httpClient = HttpClients.custom()
+                .setConnectionManager(keycloakConnectionManager.getObject())
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(TimeValue.of(transport.getIdleEviction()))
+                .evictExpiredConnections()
+                .build();
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+}
@@ -1,10 +1,15 @@
 package com.microservices.user.config;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 @Getter
 @Setter
 @Component
@@ -19,4 +24,235 @@ public class KeycloakConfigurationProperties {
     private String clientId;
     private String clientSecret;
 
+    /**
+     * How long before its expiry the service account token is considered stale.
+     * The token is refreshed in background one more skew ahead of that point.
+     */
+    private Duration tokenExpirySkew = Duration.ofSeconds(30);
+
+    /**
+     * HTTP transport shared by every call to Keycloak.
+     */
+    private Transport transport = new Transport();
+
+    /**
+     * Local verification of bearer tokens issued by the realm.
+     */
+    private Jwt jwt = new Jwt();
+
+    private BulkRegistration bulkRegistration = new BulkRegistration();
+
+    /**
+     * Background delivery of Keycloak calls recorded in the outbox.
+     */
+    private Outbox outbox = new Outbox();
+
+    /**
+     * Protection of this service against a slow or failing Keycloak.
+     */
+    private Resilience resilience = new Resilience();
+
+    /**
+     * Sharing of one token refresh between concurrent requests carrying the same refresh token.
+     */
+    private RefreshCoalescing refreshCoalescing = new RefreshCoalescing();
+
+    @Getter
+    @Setter
+    public static class Transport {
+
+        /**
+         * Use the JDK client with HTTP/2 instead of the pooled HTTP/1.1 client.
+         * Requests are multiplexed over few connections, so the pool settings are ignored.
+         */
+        private boolean http2 = false;
+        private int maxConnections = 100;
+        private int maxConnectionsPerRoute = 50;
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(10);
+        /**
+         * Maximum time to wait for a free connection from the pool.
+         */
+        private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+        /**
+         * Idle connections are closed after this time.
+         */
+        private Duration idleEviction = Duration.ofSeconds(30);
+        /**
+         * Connections are not reused after this time, so DNS changes are picked up.
+         */
+        private Duration timeToLive = Duration.ofMinutes(5);
+
+    }
+
+    @Getter
+    @Setter
+    public static class Jwt {
+
+        /**
+         * Expected "iss" claim, defaults to the realm url on {@code serverUrl}.
+         * Set it when clients reach Keycloak through another hostname.
+         */
+        private String issuer;
+        /**
+         * Client ids accepted as the "azp" or in the "aud" claim, defaults to {@code clientId}.
+         * Add the clients, e.g. a frontend, whose access tokens are sent to this service.
+         */
+        private List<String> audiences = new ArrayList<>();
+        /**
+         * How long the fetched JWKS is used before it is reloaded.
+         * Tokens signed by an unknown key trigger an earlier (rate limited) reload.
+         */
+        private Duration jwksCacheTtl = Duration.ofMinutes(10);
+        private Duration jwksRefreshTimeout = Duration.ofSeconds(5);
+        /**
+         * Reject calls on a user resource (logout, update) whose caller token subject is another user.
+         */
+        private boolean enforceCaller = false;
+
+    }
+
+    @Getter
+    @Setter
+    public static class BulkRegistration {
+
+        /**
+         * Maximum number of registrations sent to Keycloak at the same time.
+         */
+        private int parallelism = 16;
+        /**
+         * Number of user rows inserted per JDBC batch.
+         */
+        private int insertBatchSize = 500;
+        /**
+         * Realm role the caller of a bulk registration must have.
+         */
+        private String role = "user-admin";
+
+    }
+
+    @Getter
+    @Setter
+    public static class Outbox {
+
+        /**
+         * Delay between two polls of the outbox.
+         */
+        private Duration pollInterval = Duration.ofSeconds(1);
+        /**
+         * Maximum number of events claimed per poll.
+         */
+        private int batchSize = 100;
+        /**
+         * How long a claimed event is hidden from other workers,
+         * an event whose worker died is retried after it.
+         */
+        private Duration lease = Duration.ofMinutes(1);
+        /**
+         * Delay before the first retry, doubled after each failed attempt up to {@code maxBackoff}.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(1);
+        private Duration maxBackoff = Duration.ofMinutes(10);
+        /**
+         * An event failing this many times is marked failed and no longer retried.
+         */
+        private int maxAttempts = 12;
+
+    }
+
+    @Getter
+    @Setter
+    public static class Resilience {
+
+        private CircuitBreaker circuitBreaker = new CircuitBreaker();
+        /**
+         * Concurrent calls of the token endpoint (login, refresh, service account token).
+         */
+        private Bulkhead auth = new Bulkhead(100);
+        /**
+         * Concurrent calls of the admin API (register, logout, delete).
+         */
+        private Bulkhead admin = new Bulkhead(30);
+        private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+
+        /**
+         * Percentage of failed calls (5xx or I/O errors) opening the circuit.
+         */
+        private float failureRateThreshold = 50;
+        /**
+         * Percentage of calls slower than {@code slowCallDuration} opening the circuit.
+         */
+        private float slowCallRateThreshold = 80;
+        private Duration slowCallDuration = Duration.ofSeconds(3);
+        /**
+         * Number of last calls the rates are computed on.
+         */
+        private int slidingWindowSize = 50;
+        private int minimumNumberOfCalls = 20;
+        /**
+         * How long calls fail fast before a few probe calls are let through.
+         */
+        private Duration waitInOpenState = Duration.ofSeconds(10);
+        private int permittedCallsInHalfOpenState = 5;
+
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Bulkhead {
+
+        private int maxConcurrentCalls;
+        /**
+         * How long a call waits for a free slot before it is rejected.
+         */
+        private Duration maxWait = Duration.ofMillis(100);
+
+        public Bulkhead(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+    }
+
+    @Getter
+    @Setter
+    public static class ConcurrencyLimit {
+
+        private boolean enabled = true;
+        private int initialLimit = 20;
+        private int minLimit = 5;
+        private int maxLimit = 200;
+        /**
+         * Calls slower than this are treated as a sign of overload and shrink the limit.
+         */
+        private Duration latencyThreshold = Duration.ofSeconds(1);
+        /**
+         * Factor the limit is multiplied by on overload.
+         */
+        private double backoffRatio = 0.9;
+
+    }
+
+    @Getter
+    @Setter
+    public static class RefreshCoalescing {
+
+        /**
+         * How long after it completed a refresh response is handed to duplicate requests, zero disables coalescing.
+         * Keep it short, a client replaying an old refresh token within the window gets the same tokens.
+         */
+        private Duration window = Duration.ofSeconds(2);
+        /**
+         * Maximum number of refresh responses kept for the window.
+         */
+        private long maximumSize = 10_000;
+
+    }
+
 }
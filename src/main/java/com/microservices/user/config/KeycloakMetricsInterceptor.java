@@ -0,0 +1,65 @@
+package com.microservices.user.config;
+
+import com.microservices.user.exception.KeycloakUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every request to Keycloak as {@code keycloak.client.requests},
+ * tagged by operation (token, register, logout, delete, other) and status:
+ * the HTTP status code, {@code REJECTED} when the resilience layer refused it,
+ * or {@code IO_ERROR} when no response was received.
+ */
+public class KeycloakMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    public static final String METRIC_NAME = "keycloak.client.requests";
+
+    private final MeterRegistry registry;
+
+    public KeycloakMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        var operation = operation(request);
+        var start = System.nanoTime();
+        var status = "IO_ERROR";
+        try {
+            var response = execution.execute(request, body);
+            status = String.valueOf(response.getStatusCode().value());
+            return response;
+        } catch (KeycloakUnavailableException e) {
+            status = "REJECTED";
+            throw e;
+        } finally {
+            Timer.builder(METRIC_NAME)
+                    .description("Requests sent to Keycloak")
+                    .tag("operation", operation)
+                    .tag("status", status)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    static String operation(HttpRequest request) {
+        var path = request.getURI().getPath();
+        var method = request.getMethod();
+        if (path.endsWith("/protocol/openid-connect/token")) return "token";
+        if (path.endsWith("/logout")) return "logout";
+        if (path.endsWith("/users") && HttpMethod.POST.equals(method)) return "register";
+        if (path.contains("/users/") && HttpMethod.DELETE.equals(method)) return "delete";
+        return "other";
+    }
+
+}
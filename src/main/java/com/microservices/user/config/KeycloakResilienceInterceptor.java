@@ -0,0 +1,145 @@
+package com.microservices.user.config;
+
+import com.microservices.user.exception.KeycloakUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guards every request to Keycloak, in this order, with
+ * a circuit breaker failing fast while Keycloak returns 5xx, fails on I/O or is slow,
+ * a bulkhead bounding the calls in flight so that Keycloak cannot hold every request thread,
+ * and an {@link AdaptiveConcurrencyLimiter} shrinking that bound while latency rises.
+ * Token endpoint and admin API calls are isolated from each other, each has its own set.
+ * A rejected call throws {@link KeycloakUnavailableException} without reaching Keycloak.
+ */
+public class KeycloakResilienceInterceptor implements ClientHttpRequestInterceptor, MeterBinder {
+
+    public static final String AUTH = "keycloak-auth";
+    public static final String ADMIN = "keycloak-admin";
+
+    private static final String TOKEN_ENDPOINT_PATH = "/protocol/openid-connect/";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final Guard auth;
+    private final Guard admin;
+
+    public KeycloakResilienceInterceptor(KeycloakConfigurationProperties.Resilience properties) {
+        var breaker = properties.getCircuitBreaker();
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(breaker.getFailureRateThreshold())
+                .slowCallRateThreshold(breaker.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(breaker.getSlowCallDuration())
+                .slidingWindowSize(breaker.getSlidingWindowSize())
+                .minimumNumberOfCalls(breaker.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(breaker.getWaitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(breaker.getPermittedCallsInHalfOpenState())
+                .build());
+        bulkheadRegistry = BulkheadRegistry.ofDefaults();
+
+        auth = createGuard(AUTH, properties.getAuth(), properties.getConcurrencyLimit());
+        admin = createGuard(ADMIN, properties.getAdmin(), properties.getConcurrencyLimit());
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        var guard = request.getURI().getPath().contains(TOKEN_ENDPOINT_PATH) ? auth : admin;
+        var circuitBreaker = guard.circuitBreaker();
+        var bulkhead = guard.bulkhead();
+        var limiter = guard.limiter();
+
+        if (!circuitBreaker.tryAcquirePermission())
+            throw new KeycloakUnavailableException("Keycloak is unavailable, circuit " + circuitBreaker.getName() + " is open.");
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            throw new KeycloakUnavailableException("Too many concurrent calls to Keycloak (" + bulkhead.getName() + ").");
+        }
+        if (limiter != null && !limiter.tryAcquire()) {
+            bulkhead.onComplete();
+            circuitBreaker.releasePermission();
+            throw new KeycloakUnavailableException("Keycloak is overloaded, concurrency limit of "
+                                                   + guard.name() + " reached.");
+        }
+
+        var start = System.nanoTime();
+        try {
+            var response = execution.execute(request, body);
+            var latency = System.nanoTime() - start;
+            var status = response.getStatusCode();
+            if (status.is5xxServerError()) {
+                // 4xx are answers about the request (wrong password, conflict), not about Keycloak health
+                circuitBreaker.onError(latency, TimeUnit.NANOSECONDS,
+                        new HttpServerErrorException(status, response.getStatusText()));
+                if (limiter != null) limiter.onFailure();
+            } else {
+                circuitBreaker.onSuccess(latency, TimeUnit.NANOSECONDS);
+                if (limiter != null) limiter.onSuccess(latency);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            if (limiter != null) limiter.onFailure();
+            throw e;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker(String name) {
+        return circuitBreakerRegistry.circuitBreaker(name);
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter(String name) {
+        return (AUTH.equals(name) ? auth : admin).limiter();
+    }
+
+    /**
+     * Publish state and calls of the circuit breakers, bulkheads and concurrency limiters.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(registry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(registry);
+        if (auth.limiter() != null) auth.limiter().bindTo(registry);
+        if (admin.limiter() != null) admin.limiter().bindTo(registry);
+    }
+
+    private Guard createGuard(String name,
+                              KeycloakConfigurationProperties.Bulkhead bulkhead,
+                              KeycloakConfigurationProperties.ConcurrencyLimit concurrencyLimit) {
+        var bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(bulkhead.getMaxConcurrentCalls())
+                .maxWaitDuration(bulkhead.getMaxWait())
+                .build();
+        return new Guard(
+                name,
+                circuitBreakerRegistry.circuitBreaker(name),
+                bulkheadRegistry.bulkhead(name, bulkheadConfig),
+                concurrencyLimit.isEnabled() ? new AdaptiveConcurrencyLimiter(name, concurrencyLimit) : null
+        );
+    }
+
+    private record Guard(String name,
+                         CircuitBreaker circuitBreaker,
+                         Bulkhead bulkhead,
+                         AdaptiveConcurrencyLimiter limiter) {
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.microservices.user.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out connections of a healthy replica, falling back to the primary when none is healthy
+ * or when this instance committed a write less than the read-your-writes window ago.
+ * A replica failing to give a connection is marked unhealthy until the next successful health check.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final DataSourceRoutingConfigurationProperties.Selection selection;
+    private final long readYourWritesWindowNanos;
+    private final AtomicIntegerArray healthy;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final AtomicLong lastWriteNanos;
+    private final ScheduledExecutorService healthChecker;
+
+    public ReplicaDataSource(
+            DataSource primary,
+            List<HikariDataSource> replicas,
+            DataSourceRoutingConfigurationProperties.Selection selection,
+            Duration readYourWritesWindow,
+            Duration healthCheckInterval
+    ) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.readYourWritesWindowNanos = readYourWritesWindow.toNanos();
+        this.healthy = new AtomicIntegerArray(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) healthy.set(i, 1);
+        this.lastWriteNanos = new AtomicLong(System.nanoTime() - readYourWritesWindowNanos);
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("replica-health-check").daemon().factory());
+        var interval = healthCheckInterval.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Record a write committed on the primary, reads go to the primary for the read-your-writes window.
+     */
+    public void markWrite() {
+        lastWriteNanos.set(System.nanoTime());
+    }
+
+    public boolean isHealthy(int replica) {
+        return healthy.get(replica) == 1;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (System.nanoTime() - lastWriteNanos.get() < readYourWritesWindowNanos)
+            return primary.getConnection();
+
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            var replica = select();
+            if (replica < 0) break;
+            try {
+                return replicas.get(replica).getConnection();
+            } catch (SQLException e) {
+                markUnhealthy(replica, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Replica connections use the configured credentials.");
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        replicas.forEach(HikariDataSource::close);
+    }
+
+    /**
+     * @return Index of the replica to use, -1 when none is healthy.
+     */
+    private int select() {
+        return switch (selection) {
+            case ROUND_ROBIN -> {
+                for (int i = 0; i < replicas.size(); i++) {
+                    var candidate = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+                    if (isHealthy(candidate)) yield candidate;
+                }
+                yield -1;
+            }
+            case LEAST_CONNECTIONS -> {
+                var selected = -1;
+                var leastActive = Integer.MAX_VALUE;
+                for (int i = 0; i < replicas.size(); i++) {
+                    if (!isHealthy(i)) continue;
+                    var pool = replicas.get(i).getHikariPoolMXBean();
+                    var active = pool == null ? 0 : pool.getActiveConnections();
+                    if (active < leastActive) {
+                        leastActive = active;
+                        selected = i;
+                    }
+                }
+                yield selected;
+            }
+        };
+    }
+
+    private void checkHealth() {
+        for (int i = 0; i < replicas.size(); i++) {
+            try (var connection = replicas.get(i).getConnection()) {
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS))
+                    throw new SQLException("Connection is not valid.");
+                if (healthy.getAndSet(i, 1) == 0)
+                    log.info("Replica {} is healthy again", replicas.get(i).getPoolName());
+            } catch (SQLException | RuntimeException e) {
+                markUnhealthy(i, e);
+            }
+        }
+    }
+
+    private void markUnhealthy(int replica, Exception cause) {
+        if (healthy.getAndSet(replica, 0) == 1)
+            log.warn("Replica {} is unhealthy, reading from other replicas or the primary: {}",
+                    replicas.get(replica).getPoolName(), cause.getMessage());
+    }
+
+}
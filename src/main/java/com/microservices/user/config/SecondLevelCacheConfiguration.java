@@ -0,0 +1,63 @@
+package com.microservices.user.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.microservices.user.constant.CacheNames;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Local (Caffeine backed JCache) Hibernate second-level cache, see {@link SecondLevelCacheConfigurationProperties}.
+ * Hit, miss and put counts of each region are published as {@code hibernate.second.level.cache.*} metrics.
+ */
+@Configuration
+public class SecondLevelCacheConfiguration {
+
+    private static final List<String> REGIONS = List.of(CacheNames.DOMAINS);
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty("jpa.second-level-cache.enabled")
+    public CacheManager hibernateCacheManager(SecondLevelCacheConfigurationProperties properties) {
+        var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        var cacheManager = provider.getCacheManager(
+                URI.create("hibernate-second-level-cache"),
+                SecondLevelCacheConfiguration.class.getClassLoader()
+        );
+
+        var configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(properties.getMaximumSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(properties.getTimeToLive().toNanos()));
+        configuration.setStatisticsEnabled(true);
+        for (var region : REGIONS)
+            if (cacheManager.getCache(region) == null) cacheManager.createCache(region, configuration);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(ObjectProvider<CacheManager> hibernateCacheManager) {
+        return hibernateProperties -> {
+            var cacheManager = hibernateCacheManager.getIfAvailable();
+            if (cacheManager == null) {
+                hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+                return;
+            }
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            // every region is created above, a missing one is a mapping mistake
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.microservices.user.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("jpa.second-level-cache")
+public class SecondLevelCacheConfigurationProperties {
+
+    /**
+     * Cache domains in a local Hibernate second-level cache.
+     */
+    private boolean enabled = false;
+    /**
+     * Maximum number of entries of each cache region.
+     */
+    private long maximumSize = 10_000;
+    /**
+     * How long an entry is kept after it was written,
+     * bounds the staleness of rows changed by other instances.
+     */
+    private Duration timeToLive = Duration.ofMinutes(10);
+
+}
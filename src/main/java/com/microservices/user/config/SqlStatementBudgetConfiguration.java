@@ -0,0 +1,35 @@
+package com.microservices.user.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-request SQL statement budget, see {@link SqlStatementBudgetConfigurationProperties}.
+ * Catches N+1 queries, e.g. traversing lazy {@code User.domains}, before they reach production.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jpa.statement-budget.enabled", matchIfMissing = true)
+public class SqlStatementBudgetConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementRecorderCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementRecorder.Inspector());
+            hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                    SqlStatementRecorder.JdbcTimer.class.getName());
+        };
+    }
+
+    @Bean
+    public SqlStatementBudgetFilter sqlStatementBudgetFilter(SqlStatementBudgetConfigurationProperties properties,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        return new SqlStatementBudgetFilter(properties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.microservices.user.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("jpa.statement-budget")
+public class SqlStatementBudgetConfigurationProperties {
+
+    /**
+     * Count the SQL statements and JDBC time of each HTTP request.
+     */
+    private boolean enabled = true;
+    /**
+     * Statements a request may run before a warning is logged.
+     */
+    private int maxStatements = 10;
+    /**
+     * Budgets of single endpoints, keyed by method and path pattern,
+     * e.g. {@code jpa.statement-budget.endpoints.[GET /api/v1/user/{userId}]=2}.
+     */
+    private Map<String, Integer> endpoints = new HashMap<>();
+    /**
+     * Fail requests exceeding their budget, meant for tests.
+     * A request whose response is already committed cannot fail anymore, it is logged as an error instead.
+     */
+    private boolean strict = false;
+    /**
+     * Add the counts as {@code X-SQL-Statements} and {@code X-SQL-Time-Ms} response headers.
+     * They expose internals to clients, keep them for development.
+     */
+    private boolean headers = false;
+
+}
@@ -0,0 +1,142 @@
+package com.microservices.user.config;
+
+import com.microservices.user.exception.SqlStatementBudgetExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the SQL statements of each request, see {@link SqlStatementRecorder},
+ * and compares them with the budget of its endpoint.
+ * Requests over budget are counted as {@code jpa.statement.budget.exceeded}, tagged by endpoint.
+ * The response headers hold the counts up to the moment the response is committed,
+ * statements run while writing the body are only part of the log line.
+ */
+@Slf4j
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    static final String TIME_HEADER = "X-SQL-Time-Ms";
+    static final String EXCEEDED_METRIC = "jpa.statement.budget.exceeded";
+
+    private final SqlStatementBudgetConfigurationProperties properties;
+    private final MeterRegistry registry;
+
+    public SqlStatementBudgetFilter(SqlStatementBudgetConfigurationProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        var recording = SqlStatementRecorder.start();
+        var wrapper = properties.isHeaders() ? new HeaderWritingResponse(response, recording) : response;
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (wrapper instanceof HeaderWritingResponse headerWriting) headerWriting.writeHeaders();
+        } finally {
+            recording.close();
+        }
+
+        var endpoint = request.getMethod() + " " + endpointPattern(request);
+        var statements = recording.getStatements();
+        var jdbcMillis = TimeUnit.NANOSECONDS.toMillis(recording.getJdbcNanos());
+        var budget = properties.getEndpoints().getOrDefault(endpoint, properties.getMaxStatements());
+        if (statements <= budget) {
+            log.debug("{} ran {} SQL statements in {} ms", endpoint, statements, jdbcMillis);
+            return;
+        }
+
+        Counter.builder(EXCEEDED_METRIC)
+                .description("Requests that ran more SQL statements than their budget")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .increment();
+        var message = "%s ran %d SQL statements in %d ms, its budget is %d"
+                .formatted(endpoint, statements, jdbcMillis, budget);
+        if (!properties.isStrict()) log.warn(message);
+        // once committed the client already got its status, failing would only hide the response
+        else if (response.isCommitted()) log.error(message);
+        else throw new SqlStatementBudgetExceededException(message);
+    }
+
+    private static String endpointPattern(HttpServletRequest request) {
+        // the URI is used for requests not mapped to a handler
+        var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+    /**
+     * Adds the headers right before anything commits the response.
+     */
+    private static final class HeaderWritingResponse extends HttpServletResponseWrapper {
+
+        private final SqlStatementRecorder.Recording recording;
+        private boolean written;
+
+        private HeaderWritingResponse(HttpServletResponse response, SqlStatementRecorder.Recording recording) {
+            super(response);
+            this.recording = recording;
+        }
+
+        private void writeHeaders() {
+            if (written || isCommitted()) return;
+            written = true;
+            setHeader(STATEMENTS_HEADER, String.valueOf(recording.getStatements()));
+            setHeader(TIME_HEADER, String.valueOf(TimeUnit.NANOSECONDS.toMillis(recording.getJdbcNanos())));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.microservices.user.config;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares and the time spent executing them on the current thread,
+ * between {@link #start()} and {@link Recording#close()}.
+ * Statements sent through {@code JdbcTemplate} bypass Hibernate and are not counted.
+ */
+public final class SqlStatementRecorder {
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementRecorder() {
+    }
+
+    public static Recording start() {
+        var recording = new Recording(CURRENT.get());
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    public static final class Recording implements AutoCloseable {
+
+        private final Recording previous;
+        private int statements;
+        private long jdbcNanos;
+
+        private Recording(Recording previous) {
+            this.previous = previous;
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public long getJdbcNanos() {
+            return jdbcNanos;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) CURRENT.remove();
+            else CURRENT.set(previous);
+        }
+
+    }
+
+    /**
+     * Registered as {@code hibernate.session_factory.statement_inspector}.
+     */
+    public static final class Inspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            var recording = CURRENT.get();
+            if (recording != null) recording.statements++;
+            return sql;
+        }
+
+    }
+
+    /**
+     * Registered as {@code hibernate.session.events.auto}, Hibernate creates one per session.
+     */
+    public static final class JdbcTimer extends BaseSessionEventListener {
+
+        private long start;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            start = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            record();
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            start = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            record();
+        }
+
+        private void record() {
+            var recording = CURRENT.get();
+            if (recording != null) recording.jdbcNanos += System.nanoTime() - start;
+        }
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.microservices.user.config;
+
+import com.microservices.user.security.AuthenticatedCallerArgumentResolver;
+import com.microservices.user.security.BearerTokenInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfiguration implements WebMvcConfigurer {
+
+    private final BearerTokenInterceptor bearerTokenInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // token endpoints are called with expired or no tokens, bulk registration needs a verified caller
+        registry.addInterceptor(bearerTokenInterceptor)
+                .addPathPatterns("/api/**")
+                .excludePathPatterns(
+                        "/api/v1/user/auth/login",
+                        "/api/v1/user/auth/refresh",
+                        "/api/v1/user/auth/register"
+                );
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new AuthenticatedCallerArgumentResolver());
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.microservices.user.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Calls {@code onWrite} when a data-changing statement (anything but {@code SELECT} and {@code SHOW})
+ * is sent through one of its connections: once the surrounding transaction commits,
+ * or right away outside a transaction.
+ * Transactions that only read, or do not run any statement, are not writes.
+ */
+public class WriteTrackingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> READ_KEYWORDS = Set.of("select", "show");
+    private static final Set<String> STATEMENT_METHODS = Set.of(
+            "execute", "executeUpdate", "executeLargeUpdate", "addBatch");
+
+    private final Runnable onWrite;
+
+    public WriteTrackingDataSource(DataSource targetDataSource, Runnable onWrite) {
+        super(targetDataSource);
+        this.onWrite = onWrite;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection(), Connection.class);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password), Connection.class);
+    }
+
+    static boolean isWrite(String sql) {
+        var start = 0;
+        while (start < sql.length()) {
+            if (Character.isWhitespace(sql.charAt(start))) start++;
+            else if (sql.startsWith("/*", start)) {
+                var end = sql.indexOf("*/", start + 2);
+                if (end < 0) return true;
+                start = end + 2;
+            } else break;
+        }
+        var end = start;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) end++;
+        return !READ_KEYWORDS.contains(sql.substring(start, end).toLowerCase(Locale.ROOT));
+    }
+
+    private void recordWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onWrite.run();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) return;
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                onWrite.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WriteTrackingDataSource.this);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T track(T target, Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new Tracker(target));
+    }
+
+    /**
+     * Inspects the SQL given to connections, when preparing statements, and to plain statements.
+     */
+    private class Tracker implements InvocationHandler {
+
+        private final Object target;
+
+        private Tracker(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "prepareStatement", "prepareCall" -> {
+                    if (isWrite((String) args[0])) recordWrite();
+                }
+                default -> {
+                    if (target instanceof Statement && STATEMENT_METHODS.contains(method.getName())
+                            && args != null && args[0] instanceof String sql && isWrite(sql)) recordWrite();
+                }
+            }
+
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            if (method.getName().equals("createStatement")) return track((Statement) result, Statement.class);
+            return result;
+        }
+
+    }
+
+}
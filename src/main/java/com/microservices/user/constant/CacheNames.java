@@ -0,0 +1,19 @@
+package com.microservices.user.constant;
+
+public interface CacheNames {
+
+    /**
+     * {@link com.microservices.user.dto.response.UserResponse} by user id.
+     */
+    String USERS = "users";
+    /**
+     * User id by normalized (trimmed, lower case) email.
+     */
+    String USER_IDS_BY_EMAIL = "user-ids-by-email";
+
+    /**
+     * Hibernate second-level cache region of {@link com.microservices.user.entity.Domain} entities.
+     */
+    String DOMAINS = "domains";
+
+}
@@ -0,0 +1,9 @@
+package com.microservices.user.constant;
+
+public enum OutboxEventStatus {
+    PENDING,
+    /**
+     * Gave up after the maximum number of attempts, needs a manual fix.
+     */
+    FAILED
+}
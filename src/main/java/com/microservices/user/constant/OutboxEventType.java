@@ -0,0 +1,8 @@
+package com.microservices.user.constant;
+
+public enum OutboxEventType {
+    /**
+     * Remove a user, deleted locally, from Keycloak.
+     */
+    DELETE_KEYCLOAK_USER
+}
@@ -0,0 +1,5 @@
+package com.microservices.user.constant;
+
+public enum RegisterStatus {
+    CREATED, CONFLICT, INVALID, FAILED
+}
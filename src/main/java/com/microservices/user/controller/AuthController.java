@@ -1,10 +1,15 @@
 package com.microservices.user.controller;
 
 import com.microservices.user.dto.response.AuthenticatedResponse;
+import com.microservices.user.dto.response.UserRegisterResultResponse;
 import com.microservices.user.dto.request.UserLoginRequest;
 import com.microservices.user.dto.request.UserRegisterRequest;
+import com.microservices.user.config.KeycloakConfigurationProperties;
 import com.microservices.user.exception.KeycloakErrorException;
+import com.microservices.user.security.AuthenticatedCaller;
+import com.microservices.user.security.CallerAccessPolicy;
 import com.microservices.user.service.impl.KeycloakService;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -17,6 +22,8 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/user/auth")
@@ -25,6 +32,8 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final KeycloakService keycloakService;
+    private final CallerAccessPolicy callerAccessPolicy;
+    private final KeycloakConfigurationProperties keycloakProperties;
 
     @PostMapping("/login")
     @ResponseStatus(HttpStatus.OK)
@@ -50,7 +59,12 @@ public class AuthController {
 
     @PostMapping("/{userId}/logout")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public boolean logout(@PathVariable String userId) {
+    @ApiResponses({
+            @ApiResponse(responseCode = "401", description = "Invalid bearer token.", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Token belongs to another user.", content = @Content)
+    })
+    public boolean logout(@PathVariable String userId, @Parameter(hidden = true) AuthenticatedCaller caller) {
+        callerAccessPolicy.requireSelf(caller, userId);
         return keycloakService.logout(userId);
     }
 
@@ -100,6 +114,29 @@ public class AuthController {
         return keycloakService.register(isExpert, userRegisterRequest);
     }
 
+    @PostMapping("/register/batch")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "No users or too many users.",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_PLAIN_VALUE,
+                            schema = @Schema(example = "users cannot be empty.")
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid bearer token.", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Caller lacks the bulk registration role.", content = @Content)
+    })
+    public List<UserRegisterResultResponse> registerAll(
+            @RequestParam(required = false, defaultValue = "false") Boolean isExpert,
+            @RequestBody List<UserRegisterRequest> userRegisterRequests,
+            @Parameter(hidden = true) AuthenticatedCaller caller
+    ) {
+        callerAccessPolicy.requireRole(caller, keycloakProperties.getBulkRegistration().getRole());
+        return keycloakService.registerAll(isExpert, userRegisterRequests);
+    }
+
     @ExceptionHandler(KeycloakErrorException.class)
     public ResponseEntity<String> handleKeycloakErrorException(KeycloakErrorException exception) {
         log.error(exception.getMessage(), exception);
@@ -2,6 +2,7 @@ package com.microservices.user.controller;
 
 import com.microservices.user.dto.request.DomainCreateRequest;
 import com.microservices.user.dto.request.DomainUpdateRequest;
+import com.microservices.user.dto.response.CursorPagingObjectsResponse;
 import com.microservices.user.dto.response.DomainResponse;
 import com.microservices.user.dto.response.PagingObjectsResponse;
 import com.microservices.user.service.IDomainService;
@@ -15,6 +16,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/user/domain")
 @RequiredArgsConstructor
@@ -33,6 +36,34 @@ public class DomainController {
         return domainService.getAllDomains(name, pageNumber, pageSize);
     }
 
+    @GetMapping("/scroll")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor",
+            content = @Content(
+                    mediaType = MediaType.TEXT_PLAIN_VALUE,
+                    schema = @Schema(example = "Invalid cursor.")
+            )
+    )
+    public CursorPagingObjectsResponse<DomainResponse> scrollDomains(
+            @RequestParam(required = false, defaultValue = "") String name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "6") Integer pageSize,
+            @RequestParam(required = false, defaultValue = "false") Boolean includeTotal
+    ) {
+        return domainService.scrollDomains(name, cursor, pageSize, includeTotal);
+    }
+
+    @GetMapping("/suggest")
+    @ResponseStatus(HttpStatus.OK)
+    public List<DomainResponse> suggestDomains(
+            @RequestParam(required = false, defaultValue = "") String prefix,
+            @RequestParam(required = false, defaultValue = "10") Integer limit
+    ) {
+        return domainService.suggestDomains(prefix, limit);
+    }
+
     @GetMapping("/{domainId}")
     @ResponseStatus(HttpStatus.OK)
     @ApiResponse(
@@ -2,8 +2,13 @@ package com.microservices.user.controller;
 
 import com.microservices.user.dto.request.UserDomainsUpdateRequest;
 import com.microservices.user.dto.request.UserUpdateRequest;
+import com.microservices.user.dto.response.CursorPagingObjectsResponse;
+import com.microservices.user.dto.response.PagingObjectsResponse;
 import com.microservices.user.dto.response.UserResponse;
+import com.microservices.user.security.AuthenticatedCaller;
+import com.microservices.user.security.CallerAccessPolicy;
 import com.microservices.user.service.IUserService;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,8 +19,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/v1/user")
 @RequiredArgsConstructor
@@ -23,6 +26,7 @@ import java.util.List;
 public class UserController {
 
     private final IUserService userService;
+    private final CallerAccessPolicy callerAccessPolicy;
 
     @GetMapping("/{domainId}/experts")
     @ResponseStatus(HttpStatus.OK)
@@ -34,8 +38,40 @@ public class UserController {
                     schema = @Schema(example = "Domain not found")
             )
     )
-    public List<UserResponse> getAllExpertsByDomain(@PathVariable String domainId) {
-        return userService.getAllExpertsByDomain(domainId);
+    public PagingObjectsResponse<UserResponse> getAllExpertsByDomain(
+            @PathVariable String domainId,
+            @RequestParam(required = false, defaultValue = "0") Integer pageNumber,
+            @RequestParam(required = false, defaultValue = "6") Integer pageSize
+    ) {
+        return userService.getAllExpertsByDomain(domainId, pageNumber, pageSize);
+    }
+
+    @GetMapping("/{domainId}/experts/scroll")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_PLAIN_VALUE,
+                            schema = @Schema(example = "Invalid cursor.")
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Domain not found",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_PLAIN_VALUE,
+                            schema = @Schema(example = "Domain not found")
+                    )
+            )
+    })
+    public CursorPagingObjectsResponse<UserResponse> scrollExpertsByDomain(
+            @PathVariable String domainId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "6") Integer pageSize
+    ) {
+        return userService.scrollExpertsByDomain(domainId, cursor, pageSize);
     }
 
     @GetMapping("/{userId}")
@@ -78,6 +114,8 @@ public class UserController {
                             schema = @Schema(example = "firstName cannot be blank.")
                     )
             ),
+            @ApiResponse(responseCode = "401", description = "Invalid bearer token.", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Token belongs to another user.", content = @Content),
             @ApiResponse(
                     responseCode = "404",
                     description = "User not found",
@@ -88,7 +126,9 @@ public class UserController {
             )
     })
     public void updateUser(@PathVariable String userId,
-                           @RequestBody UserUpdateRequest userUpdateRequest) {
+                           @RequestBody UserUpdateRequest userUpdateRequest,
+                           @Parameter(hidden = true) AuthenticatedCaller caller) {
+        callerAccessPolicy.requireSelf(caller, userId);
         userService.updateUser(userId, userUpdateRequest);
     }
 
@@ -0,0 +1,20 @@
+package com.microservices.user.dto.response;
+
+import java.util.List;
+
+/**
+ * A page of a keyset (cursor) listing.
+ *
+ * @param totalElements  Number of elements of the whole listing, null when it was not requested.
+ * @param previousCursor Opaque cursor of the previous page, null on the first page or when not supported.
+ * @param nextCursor     Opaque cursor of the next page, null on the last page.
+ */
+public record CursorPagingObjectsResponse<T>(
+        Integer size,
+        Integer numberOfElements,
+        Long totalElements,
+        String previousCursor,
+        String nextCursor,
+        List<T> content
+) {
+}
@@ -0,0 +1,21 @@
+package com.microservices.user.dto.response;
+
+import com.microservices.user.constant.RegisterStatus;
+
+import java.io.Serializable;
+
+/**
+ * Outcome of one item of a bulk registration.
+ *
+ * @param index   Position of the item in the request list.
+ * @param status  Registering status.
+ * @param userId  Id of the created user, null unless the status is CREATED.
+ * @param message Error details, null if the user is created.
+ */
+public record UserRegisterResultResponse(
+        Integer index,
+        RegisterStatus status,
+        String userId,
+        String message
+) implements Serializable {
+}
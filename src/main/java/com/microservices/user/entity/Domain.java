@@ -1,20 +1,31 @@
 package com.microservices.user.entity;
 
+import com.microservices.user.constant.CacheNames;
+import com.microservices.user.entity.id.IdTypeContributor;
+import com.microservices.user.entity.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JdbcTypeCode;
 
 import java.util.List;
 
 @Setter
 @Getter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheNames.DOMAINS)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(name = "idx_domain_name", columnList = "name"))
 public class Domain {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @JdbcTypeCode(IdTypeContributor.ID)
+    @TimeOrderedUuid
     @Column(name = "id", length = 36, nullable = false)
     private String id;
 
@@ -23,6 +34,7 @@ public class Domain {
     private String description;
 
     @ManyToMany(mappedBy = "domains")
+    @BatchSize(size = 100)
     private List<User> users;
 
 }
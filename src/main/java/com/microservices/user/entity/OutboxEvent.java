@@ -0,0 +1,59 @@
+package com.microservices.user.entity;
+
+import com.microservices.user.constant.OutboxEventStatus;
+import com.microservices.user.constant.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A remote side effect committed together with the local change that requires it,
+ * and carried out later by {@link com.microservices.user.service.impl.KeycloakOutboxWorker}.
+ */
+@Setter
+@Getter
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "outbox_event", indexes = @Index(name = "idx_outbox_event_due", columnList = "status, next_attempt_at"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30, nullable = false)
+    private OutboxEventType type;
+
+    /**
+     * Id of the entity the event is about, e.g. the user id.
+     */
+    @Column(length = 36, nullable = false)
+    private String aggregateId;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, nullable = false)
+    private OutboxEventStatus status = OutboxEventStatus.PENDING;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    /**
+     * The event is not processed before this time,
+     * pushed forward while a worker handles it and after a failed attempt.
+     */
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+}
@@ -1,11 +1,15 @@
 package com.microservices.user.entity;
 
 import com.microservices.user.constant.Gender;
+import com.microservices.user.entity.id.IdTypeContributor;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.JdbcTypeCode;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 
 @Setter
 @Getter
@@ -13,9 +17,11 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(name = "idx_user_expert", columnList = "is_expert, id"))
 public class User {
 
     @Id
+    @JdbcTypeCode(IdTypeContributor.ID)
     @Column(name = "id", length = 36, nullable = false)
     private String id;
 
@@ -34,12 +40,19 @@ public class User {
 
     private LocalDate birthDate;
 
+    /**
+     * Stored normalized, see {@link #normalizeEmail(String)},
+     * so lookups compare the column as is and use its unique index.
+     */
     @Column(length = 150, nullable = false, unique = true)
     private String email;
 
     @ManyToMany
+    @BatchSize(size = 100)
     @JoinTable(
+            // primary key (user_id, domain_id), created by the migrations
             name = "user_domain",
+            indexes = @Index(name = "idx_user_domain_domain_user", columnList = "domain_id, user_id"),
             joinColumns = {
                     @JoinColumn(name = "user_id",
                             nullable = false,
@@ -53,4 +66,14 @@ public class User {
     )
     private List<Domain> domains;
 
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void normalize() {
+        email = normalizeEmail(email);
+    }
+
 }
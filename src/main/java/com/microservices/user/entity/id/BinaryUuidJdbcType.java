@@ -0,0 +1,77 @@
+package com.microservices.user.entity.id;
+
+import org.hibernate.type.descriptor.ValueBinder;
+import org.hibernate.type.descriptor.ValueExtractor;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.JavaType;
+import org.hibernate.type.descriptor.jdbc.BasicBinder;
+import org.hibernate.type.descriptor.jdbc.BasicExtractor;
+import org.hibernate.type.descriptor.jdbc.JdbcType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Stores ids held as UUID strings in a BINARY(16) column.
+ */
+public class BinaryUuidJdbcType implements JdbcType {
+
+    public static final BinaryUuidJdbcType INSTANCE = new BinaryUuidJdbcType();
+
+    @Override
+    public int getJdbcTypeCode() {
+        return Types.BINARY;
+    }
+
+    @Override
+    public Class<?> getPreferredJavaTypeClass(WrapperOptions options) {
+        return String.class;
+    }
+
+    @Override
+    public <X> ValueBinder<X> getBinder(JavaType<X> javaType) {
+        return new BasicBinder<>(javaType, this) {
+            @Override
+            protected void doBind(PreparedStatement statement, X value, int index, WrapperOptions options)
+                    throws SQLException {
+                statement.setBytes(index, IdStorage.toBytes(javaType.unwrap(value, String.class, options)));
+            }
+
+            @Override
+            protected void doBind(CallableStatement statement, X value, String name, WrapperOptions options)
+                    throws SQLException {
+                statement.setBytes(name, IdStorage.toBytes(javaType.unwrap(value, String.class, options)));
+            }
+        };
+    }
+
+    @Override
+    public <X> ValueExtractor<X> getExtractor(JavaType<X> javaType) {
+        return new BasicExtractor<>(javaType, this) {
+            @Override
+            protected X doExtract(ResultSet resultSet, int index, WrapperOptions options) throws SQLException {
+                return wrap(resultSet.getBytes(index), options);
+            }
+
+            @Override
+            protected X doExtract(CallableStatement statement, int index, WrapperOptions options)
+                    throws SQLException {
+                return wrap(statement.getBytes(index), options);
+            }
+
+            @Override
+            protected X doExtract(CallableStatement statement, String name, WrapperOptions options)
+                    throws SQLException {
+                return wrap(statement.getBytes(name), options);
+            }
+
+            private X wrap(byte[] bytes, WrapperOptions options) {
+                return javaType.wrap(bytes == null ? null : IdStorage.fromBytes(bytes), options);
+            }
+        };
+    }
+
+}
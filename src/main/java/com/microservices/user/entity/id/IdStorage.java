@@ -0,0 +1,43 @@
+package com.microservices.user.entity.id;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Column type of the ids of users and domains, see {@link IdTypeContributor}.
+ */
+public enum IdStorage {
+
+    /**
+     * The 36-character text form, VARCHAR(36).
+     */
+    VARCHAR,
+    /**
+     * The 16 bytes of the UUID, BINARY(16). Only for UUID ids, as Keycloak and {@link TimeOrderedUuid} generate.
+     */
+    BINARY;
+
+    /**
+     * @return Value to bind to a statement parameter of an id column.
+     */
+    public Object toJdbcValue(String id) {
+        return this == BINARY && id != null ? toBytes(id) : id;
+    }
+
+    /**
+     * Also registered as the {@code UUID_TO_BIN} function of the H2 tests.
+     */
+    public static byte[] toBytes(String id) {
+        var uuid = UUID.fromString(id);
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    public static String fromBytes(byte[] bytes) {
+        var buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong()).toString();
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.microservices.user.entity.id;
+
+import org.hibernate.boot.model.TypeContributions;
+import org.hibernate.boot.model.TypeContributor;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.descriptor.jdbc.VarcharJdbcType;
+
+import java.util.Locale;
+
+/**
+ * Registers the column type of the id columns, mapped with {@code @JdbcTypeCode(IdTypeContributor.ID)},
+ * as set by the {@value #STORAGE_SETTING} setting (an {@link IdStorage}, VARCHAR by default).
+ * Discovered by Hibernate through META-INF/services, so every persistence unit, also of tests, has it.
+ */
+public class IdTypeContributor implements TypeContributor {
+
+    public static final String STORAGE_SETTING = "com.microservices.user.id_storage";
+    /**
+     * Type code of the id columns, outside the range used by JDBC and Hibernate.
+     */
+    public static final int ID = 36_016;
+
+    @Override
+    public void contribute(TypeContributions typeContributions, ServiceRegistry serviceRegistry) {
+        var storage = serviceRegistry.requireService(ConfigurationService.class).getSetting(
+                STORAGE_SETTING,
+                value -> IdStorage.valueOf(value.toString().toUpperCase(Locale.ROOT)),
+                IdStorage.VARCHAR
+        );
+        var jdbcType = storage == IdStorage.BINARY ? BinaryUuidJdbcType.INSTANCE : VarcharJdbcType.INSTANCE;
+        typeContributions.getTypeConfiguration().getJdbcTypeRegistry().addDescriptor(ID, jdbcType);
+    }
+
+}
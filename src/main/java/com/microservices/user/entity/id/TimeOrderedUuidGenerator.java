@@ -0,0 +1,50 @@
+package com.microservices.user.entity.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates RFC 9562 version 7 UUIDs: a 48-bit Unix millisecond timestamp, a 12-bit counter
+ * and 62 random bits. Ids of one instance are strictly increasing, also in their string form,
+ * so new rows are appended to the end of the clustered index instead of splitting random pages.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int COUNTER_BITS = 12;
+    /**
+     * Timestamp shifted left by {@link #COUNTER_BITS} plus the counter of the last generated id.
+     * A counter overflow borrows the next millisecond, which keeps the ids increasing.
+     */
+    private static final AtomicLong LAST_TICK = new AtomicLong();
+
+    public static UUID next() {
+        var now = System.currentTimeMillis() << COUNTER_BITS;
+        var tick = LAST_TICK.updateAndGet(last -> Math.max(now, last + 1));
+
+        var timestamp = tick >>> COUNTER_BITS;
+        var counter = tick & ((1L << COUNTER_BITS) - 1);
+        var mostSignificantBits = timestamp << 16 | 0x7000L | counter;
+        var leastSignificantBits = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next().toString();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.microservices.user.exception;
+
+public class CallerAccessDeniedException extends RuntimeException {
+
+    public CallerAccessDeniedException(String message) {
+        super(message);
+    }
+
+}
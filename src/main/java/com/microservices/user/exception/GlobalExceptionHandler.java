@@ -29,6 +29,26 @@ public class GlobalExceptionHandler {
         return handleException(e);
     }
 
+    @ExceptionHandler(InvalidTokenException.class)
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    public String handleInvalidTokenException(InvalidTokenException e) {
+        return handleException(e);
+    }
+
+    @ExceptionHandler(CallerAccessDeniedException.class)
+    @ResponseStatus(HttpStatus.FORBIDDEN)
+    public String handleCallerAccessDeniedException(CallerAccessDeniedException e) {
+        return handleException(e);
+    }
+
+    @ExceptionHandler(KeycloakUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String handleKeycloakUnavailableException(KeycloakUnavailableException e) {
+        // expected while Keycloak is degraded, one line per rejected call is enough
+        log.warn(e.getMessage());
+        return e.getMessage();
+    }
+
     private String handleException(Exception e) {
         var message = e.getMessage();
         log.error(message, e.getCause());
@@ -0,0 +1,13 @@
+package com.microservices.user.exception;
+
+/**
+ * A call to Keycloak was rejected without being sent,
+ * because Keycloak is failing or this service already has too many calls in flight.
+ */
+public class KeycloakUnavailableException extends RuntimeException {
+
+    public KeycloakUnavailableException(String message) {
+        super(message);
+    }
+
+}
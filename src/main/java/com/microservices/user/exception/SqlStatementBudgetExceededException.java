@@ -0,0 +1,12 @@
+package com.microservices.user.exception;
+
+/**
+ * A request ran more SQL statements than its budget allows, only thrown in strict mode.
+ */
+public class SqlStatementBudgetExceededException extends RuntimeException {
+
+    public SqlStatementBudgetExceededException(String message) {
+        super(message);
+    }
+
+}
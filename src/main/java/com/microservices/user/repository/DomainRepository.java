@@ -1,12 +1,17 @@
 package com.microservices.user.repository;
 
+import com.microservices.user.dto.response.DomainResponse;
 import com.microservices.user.entity.Domain;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 public interface DomainRepository extends JpaRepository<Domain, String> {
 
-    Page<Domain> findAllByNameContainsIgnoreCase(String name, Pageable pageable);
+    @Transactional(readOnly = true)
+    @Query("select new com.microservices.user.dto.response.DomainResponse(d.id, d.name, d.description) from Domain d")
+    List<DomainResponse> findAllDomainResponses();
 
-}
\ No newline at end of file
+}
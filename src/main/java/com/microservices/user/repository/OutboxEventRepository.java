@@ -0,0 +1,29 @@
+package com.microservices.user.repository;
+
+import com.microservices.user.constant.OutboxEventStatus;
+import com.microservices.user.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    boolean existsByStatusAndNextAttemptAtLessThanEqual(OutboxEventStatus status, Instant now);
+
+    /**
+     * Lock due events, skipping the ones another worker has locked ({@code FOR UPDATE SKIP LOCKED}).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("select e from OutboxEvent e where e.status = :status and e.nextAttemptAt <= :now order by e.nextAttemptAt")
+    List<OutboxEvent> findDueForUpdate(OutboxEventStatus status, Instant now, Limit limit);
+
+}
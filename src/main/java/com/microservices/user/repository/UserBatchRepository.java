@@ -0,0 +1,40 @@
+package com.microservices.user.repository;
+
+import com.microservices.user.entity.User;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserBatchRepository {
+
+    /**
+     * Insert new users with JDBC batches, bypassing the persistence context.
+     * Users must have their ids assigned and must not exist yet.
+     * Either all users are inserted or none of them.
+     *
+     * @param users Users to insert.
+     * @param batchSize Number of rows sent per batch.
+     */
+    @Transactional
+    void insertAll(List<User> users, int batchSize);
+
+    /**
+     * Link a user to domains with one batch on the join table, without loading the user or its domains.
+     * Unknown domains and domains the user already has are skipped.
+     *
+     * @return Number of links added.
+     */
+    @Transactional
+    int addDomains(String userId, Collection<String> domainIds);
+
+    /**
+     * Unlink a user from domains with one batch on the join table.
+     * Domains the user does not have are skipped.
+     *
+     * @return Number of links removed.
+     */
+    @Transactional
+    int removeDomains(String userId, Collection<String> domainIds);
+
+}
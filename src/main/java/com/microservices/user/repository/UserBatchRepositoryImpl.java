@@ -0,0 +1,78 @@
+package com.microservices.user.repository;
+
+import com.microservices.user.entity.User;
+import com.microservices.user.entity.id.IdStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.List;
+
+public class UserBatchRepositoryImpl implements UserBatchRepository {
+
+    private static final String INSERT_USER = """
+            INSERT INTO user (id, is_expert, first_name, last_name, gender, birth_date, email)
+            VALUES (?, ?, ?, ?, ?, ?, ?)""";
+    // existing links hit the primary key and are skipped, unknown domains select no row
+    private static final String ADD_DOMAIN = """
+            INSERT IGNORE INTO user_domain (user_id, domain_id)
+            SELECT ?, d.id FROM domain d
+            WHERE d.id = ?""";
+    private static final String REMOVE_DOMAIN = "DELETE FROM user_domain WHERE user_id = ? AND domain_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdStorage idStorage;
+
+    public UserBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                   @Value("${jpa.ids.storage:varchar}") IdStorage idStorage) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idStorage = idStorage;
+    }
+
+    @Override
+    public void insertAll(List<User> users, int batchSize) {
+        jdbcTemplate.batchUpdate(INSERT_USER, users, batchSize, (statement, user) -> {
+            statement.setObject(1, idStorage.toJdbcValue(user.getId()));
+            statement.setBoolean(2, user.getIsExpert());
+            statement.setString(3, user.getFirstName());
+            statement.setString(4, user.getLastName());
+            statement.setInt(5, user.getGender().ordinal());
+            if (user.getBirthDate() != null) statement.setDate(6, Date.valueOf(user.getBirthDate()));
+            else statement.setNull(6, Types.DATE);
+            statement.setString(7, user.getEmail());
+        });
+    }
+
+    @Override
+    public int addDomains(String userId, Collection<String> domainIds) {
+        var counts = jdbcTemplate.batchUpdate(ADD_DOMAIN, domainIds, domainIds.size(), (statement, domainId) -> {
+            statement.setObject(1, idStorage.toJdbcValue(userId));
+            statement.setObject(2, idStorage.toJdbcValue(domainId));
+        });
+        return sum(counts);
+    }
+
+    @Override
+    public int removeDomains(String userId, Collection<String> domainIds) {
+        var counts = jdbcTemplate.batchUpdate(REMOVE_DOMAIN, domainIds, domainIds.size(), (statement, domainId) -> {
+            statement.setObject(1, idStorage.toJdbcValue(userId));
+            statement.setObject(2, idStorage.toJdbcValue(domainId));
+        });
+        return sum(counts);
+    }
+
+    /**
+     * Total of the affected rows, a statement whose count the driver does not report counts as one row.
+     */
+    private static int sum(int[][] counts) {
+        var total = 0;
+        for (var batch : counts)
+            for (var count : batch)
+                total += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+        return total;
+    }
+
+}
@@ -1,12 +1,48 @@
 package com.microservices.user.repository;
 
 import com.microservices.user.entity.User;
+import com.microservices.user.repository.projection.UserDomainId;
+import com.microservices.user.repository.projection.UserRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, String> {
+public interface UserRepository extends JpaRepository<User, String>, UserBatchRepository {
 
-    Optional<User> findByEmailIgnoreCase(String email);
+    String USER_ROW = "new com.microservices.user.repository.projection.UserRow(" +
+                      "u.id, u.firstName, u.lastName, u.gender, u.birthDate, u.email)";
+
+    @Query("select " + USER_ROW + " from User u where u.id = :id")
+    Optional<UserRow> findRowById(String id);
+
+    /**
+     * @param email Normalized email, see {@link User#normalizeEmail(String)}.
+     */
+    @Query("select u.id from User u where u.email = :email")
+    Optional<String> findIdByEmail(String email);
+
+    @Query(value = "select " + USER_ROW + " from User u join u.domains d where d.id = :domainId and u.isExpert = true",
+            countQuery = "select count(u) from User u join u.domains d where d.id = :domainId and u.isExpert = true")
+    Page<UserRow> findExpertsByDomainId(String domainId, Pageable pageable);
+
+    /**
+     * Keyset variant of {@link #findExpertsByDomainId(String, Pageable)}, ordered by user id.
+     *
+     * @param afterUserId Id of the last user of the previous page, empty for the first page.
+     * @param pageable    Only its size is used.
+     */
+    @Query("select " + USER_ROW + " from User u join u.domains d " +
+           "where d.id = :domainId and u.isExpert = true and u.id > :afterUserId " +
+           "order by u.id")
+    List<UserRow> findExpertsByDomainIdAfter(String domainId, String afterUserId, Pageable pageable);
+
+    @Query("select new com.microservices.user.repository.projection.UserDomainId(u.id, d.id) " +
+           "from User u join u.domains d where u.id in :userIds")
+    List<UserDomainId> findDomainIdsByUserIds(Collection<String> userIds);
 
 }
@@ -0,0 +1,10 @@
+package com.microservices.user.repository.projection;
+
+/**
+ * A row of the user_domain join table.
+ */
+public record UserDomainId(
+        String userId,
+        String domainId
+) {
+}
@@ -0,0 +1,19 @@
+package com.microservices.user.repository.projection;
+
+import com.microservices.user.constant.Gender;
+
+import java.time.LocalDate;
+
+/**
+ * The columns of a user read for a {@link com.microservices.user.dto.response.UserResponse},
+ * without its domains.
+ */
+public record UserRow(
+        String id,
+        String firstName,
+        String lastName,
+        Gender gender,
+        LocalDate birthDate,
+        String email
+) {
+}
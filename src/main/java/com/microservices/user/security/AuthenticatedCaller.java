@@ -0,0 +1,22 @@
+package com.microservices.user.security;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Identity of the caller taken from a verified bearer token.
+ *
+ * @param subject   Keycloak user id ("sub" claim).
+ * @param username  "preferred_username" claim, may be null.
+ * @param email     "email" claim, may be null.
+ * @param expiresAt Token expiry.
+ * @param roles     Realm roles ("realm_access.roles" claim), empty if it has none.
+ */
+public record AuthenticatedCaller(
+        String subject,
+        String username,
+        String email,
+        Instant expiresAt,
+        Set<String> roles
+) {
+}
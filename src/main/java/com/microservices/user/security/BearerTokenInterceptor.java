@@ -0,0 +1,34 @@
+package com.microservices.user.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Verifies the bearer token of a request, if any, and exposes its caller
+ * to controllers as an {@link AuthenticatedCaller} argument.
+ * Requests without a token pass through, requests with an invalid token are rejected.
+ */
+@Component
+@RequiredArgsConstructor
+public class BearerTokenInterceptor implements HandlerInterceptor {
+
+    public static final String CALLER_ATTRIBUTE = AuthenticatedCaller.class.getName();
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtVerifier jwtVerifier;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        var authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            var token = authorization.substring(BEARER_PREFIX.length()).trim();
+            request.setAttribute(CALLER_ATTRIBUTE, jwtVerifier.verify(token));
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.microservices.user.security;
+
+import com.microservices.user.config.KeycloakConfigurationProperties;
+import com.microservices.user.exception.CallerAccessDeniedException;
+import com.microservices.user.exception.InvalidTokenException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CallerAccessPolicy {
+
+    private final KeycloakConfigurationProperties properties;
+
+    /**
+     * Check that the caller acts on its own user resource.
+     * Nothing is checked unless {@code keycloak.jwt.enforce-caller} is enabled.
+     *
+     * @param caller Caller of the request, null if it has no bearer token.
+     * @param userId Id of the user resource.
+     * @throws InvalidTokenException       No bearer token was sent.
+     * @throws CallerAccessDeniedException The token belongs to another user.
+     */
+    public void requireSelf(AuthenticatedCaller caller, String userId)
+            throws InvalidTokenException, CallerAccessDeniedException {
+        if (!properties.getJwt().isEnforceCaller()) return;
+        if (caller == null)
+            throw new InvalidTokenException("Bearer token is required.");
+        if (!caller.subject().equals(userId))
+            throw new CallerAccessDeniedException("Caller is not allowed to access user " + userId);
+    }
+
+    /**
+     * Check that the caller has a realm role, always enforced.
+     *
+     * @param caller Caller of the request, null if it has no bearer token.
+     * @param role   Required realm role.
+     * @throws InvalidTokenException       No bearer token was sent.
+     * @throws CallerAccessDeniedException The caller does not have the role.
+     */
+    public void requireRole(AuthenticatedCaller caller, String role)
+            throws InvalidTokenException, CallerAccessDeniedException {
+        if (caller == null)
+            throw new InvalidTokenException("Bearer token is required.");
+        if (!caller.roles().contains(role))
+            throw new CallerAccessDeniedException("Caller does not have the role " + role);
+    }
+
+}
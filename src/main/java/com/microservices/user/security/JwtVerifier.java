@@ -0,0 +1,162 @@
+package com.microservices.user.security;
+
+import com.microservices.user.config.KeycloakConfigurationProperties;
+import com.microservices.user.exception.InvalidTokenException;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.proc.BadJWTException;
+import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.text.ParseException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies Keycloak access tokens locally against the realm JWKS.
+ * The key set is fetched once and cached, so a verification costs a signature check
+ * instead of a round trip to Keycloak. Tokens signed by a key missing from the cache
+ * (key rotation) trigger a rate limited reload of the key set.
+ * Only access tokens ({@code typ} Bearer) issued to one of the accepted clients are accepted,
+ * the client being the authorized party ({@code azp}) or one of the audiences ({@code aud}).
+ */
+@Component
+public class JwtVerifier {
+
+    private static final Set<JWSAlgorithm> ALGORITHMS = Set.of(
+            JWSAlgorithm.RS256, JWSAlgorithm.RS384, JWSAlgorithm.RS512,
+            JWSAlgorithm.PS256, JWSAlgorithm.ES256, JWSAlgorithm.ES384
+    );
+    private static final Set<String> REQUIRED_CLAIMS = Set.of("sub", "exp");
+    private static final String ACCESS_TOKEN_TYPE = "Bearer";
+    private static final int JWKS_SIZE_LIMIT = 64 * 1024;
+
+    private final DefaultJWTProcessor<SecurityContext> processor;
+
+    @Autowired
+    public JwtVerifier(final KeycloakConfigurationProperties properties) {
+        this(createJwkSource(properties), resolveIssuer(properties), resolveAudiences(properties));
+    }
+
+    /**
+     * @param audiences Client ids the tokens must be issued to or for.
+     */
+    public JwtVerifier(JWKSource<SecurityContext> jwkSource, String issuer, Set<String> audiences) {
+        this.processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(ALGORITHMS, jwkSource));
+        processor.setJWTClaimsSetVerifier(new DefaultJWTClaimsVerifier<>(
+                new JWTClaimsSet.Builder().issuer(issuer).claim("typ", ACCESS_TOKEN_TYPE).build(),
+                REQUIRED_CLAIMS
+        ) {
+            @Override
+            public void verify(JWTClaimsSet claims, SecurityContext context) throws BadJWTException {
+                super.verify(claims, context);
+                if (!isIssuedFor(claims, audiences)) throw new BadJWTException("JWT client rejected");
+            }
+        });
+    }
+
+    /**
+     * Verify signature, issuer, expiry, type and client of a token.
+     *
+     * @param token Serialized JWT, without the "Bearer " prefix.
+     * @return Caller identity from the token claims.
+     * @throws InvalidTokenException The token is malformed, forged or expired.
+     */
+    public AuthenticatedCaller verify(String token) throws InvalidTokenException {
+        JWTClaimsSet claims;
+        try {
+            claims = processor.process(token, null);
+        } catch (ParseException | BadJOSEException e) {
+            throw new InvalidTokenException("Invalid bearer token: " + e.getMessage(), e);
+        } catch (JOSEException e) {
+            throw new InvalidTokenException("Cannot verify bearer token.", e);
+        }
+
+        try {
+            return new AuthenticatedCaller(
+                    claims.getSubject(),
+                    claims.getStringClaim("preferred_username"),
+                    claims.getStringClaim("email"),
+                    claims.getExpirationTime().toInstant(),
+                    realmRoles(claims)
+            );
+        } catch (ParseException e) {
+            throw new InvalidTokenException("Invalid bearer token claims.", e);
+        }
+    }
+
+    private static boolean isIssuedFor(JWTClaimsSet claims, Set<String> audiences) {
+        return claims.getClaim("azp") instanceof String authorizedParty && audiences.contains(authorizedParty)
+               || claims.getAudience().stream().anyMatch(audiences::contains);
+    }
+
+    private static Set<String> realmRoles(JWTClaimsSet claims) throws ParseException {
+        var realmAccess = claims.getJSONObjectClaim("realm_access");
+        if (realmAccess == null || !(realmAccess.get("roles") instanceof List<?> roles)) return Set.of();
+        return roles.stream()
+                .filter(String.class::isInstance)
+                .map(String.class::cast)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * The remote source is built on first use, so the realm is not contacted (nor its url validated) at startup.
+     */
+    private static JWKSource<SecurityContext> createJwkSource(KeycloakConfigurationProperties properties) {
+        var remoteSource = SingletonSupplier.of(() -> createRemoteJwkSource(properties));
+        return (selector, context) -> remoteSource.obtain().get(selector, context);
+    }
+
+    private static JWKSource<SecurityContext> createRemoteJwkSource(KeycloakConfigurationProperties properties) {
+        var jwt = properties.getJwt();
+        URL jwksUrl;
+        try {
+            jwksUrl = URI.create(properties.getServerUrl() + "/realms/"
+                                 + properties.getRealm()
+                                 + "/protocol/openid-connect/certs").toURL();
+        } catch (MalformedURLException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid Keycloak server url: " + properties.getServerUrl(), e);
+        }
+        var transport = properties.getTransport();
+        var retriever = new DefaultResourceRetriever(
+                (int) transport.getConnectTimeout().toMillis(),
+                (int) transport.getReadTimeout().toMillis(),
+                JWKS_SIZE_LIMIT
+        );
+
+        return JWKSourceBuilder.<SecurityContext>create(jwksUrl, retriever)
+                .cache(jwt.getJwksCacheTtl().toMillis(), jwt.getJwksRefreshTimeout().toMillis())
+                .refreshAheadCache(true)
+                .rateLimited(true)
+                .retrying(true)
+                .build();
+    }
+
+    private static String resolveIssuer(KeycloakConfigurationProperties properties) {
+        var issuer = properties.getJwt().getIssuer();
+        if (issuer != null && !issuer.isBlank()) return issuer;
+        return properties.getServerUrl() + "/realms/" + properties.getRealm();
+    }
+
+    private static Set<String> resolveAudiences(KeycloakConfigurationProperties properties) {
+        var audiences = properties.getJwt().getAudiences();
+        if (audiences != null && !audiences.isEmpty()) return Set.copyOf(audiences);
+        return Set.of(properties.getClientId());
+    }
+
+}
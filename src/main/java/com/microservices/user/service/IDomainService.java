@@ -2,13 +2,18 @@ package com.microservices.user.service;
 
 import com.microservices.user.dto.request.DomainCreateRequest;
 import com.microservices.user.dto.request.DomainUpdateRequest;
+import com.microservices.user.dto.response.CursorPagingObjectsResponse;
 import com.microservices.user.dto.response.DomainResponse;
 import com.microservices.user.dto.response.PagingObjectsResponse;
+import com.microservices.user.exception.IllegalAttributeException;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.List;
+
 @Validated
 public interface IDomainService {
 
@@ -22,6 +27,35 @@ public interface IDomainService {
             Integer pageSize
     );
 
+    /**
+     * Keyset variant of {@link #getAllDomains(String, Integer, Integer)}, seeking on (name, id).
+     * Every page costs the same however deep it is.
+     *
+     * @param cursor       {@code nextCursor} or {@code previousCursor} of a page, null or blank for the first page.
+     * @param includeTotal Also return the number of matching domains, counted on the in-memory catalog.
+     */
+    CursorPagingObjectsResponse<DomainResponse> scrollDomains(
+            String name,
+            String cursor,
+            @NotNull @Min(value = 1, message = "pageSize cannot be less than 1.")
+            Integer pageSize,
+            @NotNull Boolean includeTotal
+    ) throws IllegalAttributeException;
+
+    /**
+     * Autocomplete domain names.
+     *
+     * @param prefix Start of the name, case is ignored.
+     * @param limit  Maximum number of suggestions.
+     * @return Domains ordered by name.
+     */
+    List<DomainResponse> suggestDomains(
+            @NotNull String prefix,
+            @NotNull @Min(value = 1, message = "limit cannot be less than 1.")
+            @Max(value = 50, message = "limit cannot be greater than 50.")
+            Integer limit
+    );
+
     String createDomain(@NotNull @Valid DomainCreateRequest domainCreateRequest);
 
     void updateDomain(@NotNull String domainId, @NotNull DomainUpdateRequest domainUpdateRequest);
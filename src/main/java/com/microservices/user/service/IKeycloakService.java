@@ -3,13 +3,17 @@ package com.microservices.user.service;
 import com.microservices.user.dto.request.UserLoginRequest;
 import com.microservices.user.dto.request.UserRegisterRequest;
 import com.microservices.user.dto.response.AuthenticatedResponse;
+import com.microservices.user.dto.response.UserRegisterResultResponse;
 import com.microservices.user.exception.KeycloakErrorException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.List;
+
 @Validated
 public interface IKeycloakService {
 
@@ -51,6 +55,23 @@ public interface IKeycloakService {
     String register(@NotNull Boolean isExpert, @NotNull @Valid UserRegisterRequest userRegisterRequest)
             throws KeycloakErrorException;
 
+    /**
+     * Register many users at once.
+     * Users are registered with Keycloak concurrently (bounded by {@code keycloak.bulk-registration.parallelism})
+     * and the created ones are saved to database in JDBC batches.
+     * A failing item does not stop the others.
+     *
+     * @param isExpert Flag to determine an expert registering process.
+     * @param userRegisterRequests Users registering data, validated item by item.
+     * @return A result per requested user, in request order.
+     */
+    List<UserRegisterResultResponse> registerAll(
+            @NotNull Boolean isExpert,
+            @NotEmpty(message = "users cannot be empty.")
+            @Size(max = 10000, message = "at most 10000 users can be registered at once.")
+            List<UserRegisterRequest> userRegisterRequests
+    );
+
     boolean deleteUser(@NotBlank @Size(min = 36, max = 36) String userId) throws KeycloakErrorException;
 
 }
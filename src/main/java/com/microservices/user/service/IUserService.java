@@ -2,17 +2,18 @@ package com.microservices.user.service;
 
 import com.microservices.user.dto.request.UserDomainsUpdateRequest;
 import com.microservices.user.dto.request.UserUpdateRequest;
+import com.microservices.user.dto.response.CursorPagingObjectsResponse;
+import com.microservices.user.dto.response.PagingObjectsResponse;
 import com.microservices.user.dto.response.UserResponse;
 import com.microservices.user.exception.IllegalAttributeException;
 import com.microservices.user.exception.NoEntityFoundException;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.springframework.validation.annotation.Validated;
 
-import java.util.List;
-
 @Validated
 public interface IUserService {
 
@@ -27,7 +28,26 @@ public interface IUserService {
                            @NotNull @Valid UserDomainsUpdateRequest userDomainsUpdateRequest)
             throws NoEntityFoundException;
 
-    List<UserResponse> getAllExpertsByDomain(@NotBlank @Size(min = 36, max = 36) String domainId);
+    PagingObjectsResponse<UserResponse> getAllExpertsByDomain(
+            @NotBlank @Size(min = 36, max = 36) String domainId,
+            @NotNull @Min(value = 0, message = "pageNumber cannot be less than 0.")
+            Integer pageNumber,
+            @NotNull @Min(value = 1, message = "pageSize cannot be less than 1.")
+            Integer pageSize
+    ) throws NoEntityFoundException;
+
+    /**
+     * Keyset variant of {@link #getAllExpertsByDomain(String, Integer, Integer)}.
+     * Every page costs the same however deep it is, and no count is run.
+     *
+     * @param cursor {@code nextCursor} of the previous page, null or blank for the first page.
+     */
+    CursorPagingObjectsResponse<UserResponse> scrollExpertsByDomain(
+            @NotBlank @Size(min = 36, max = 36) String domainId,
+            String cursor,
+            @NotNull @Min(value = 1, message = "pageSize cannot be less than 1.")
+            Integer pageSize
+    ) throws NoEntityFoundException, IllegalAttributeException;
 
     void deleteUser(@NotBlank @Size(min = 36, max = 36) String userId) throws NoEntityFoundException;
 }
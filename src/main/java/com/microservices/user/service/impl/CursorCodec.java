@@ -0,0 +1,35 @@
+package com.microservices.user.service.impl;
+
+import com.microservices.user.exception.IllegalAttributeException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the sort key of the last row of a page into an opaque cursor.
+ */
+final class CursorCodec {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private CursorCodec() {
+    }
+
+    static String encode(String... keys) {
+        var joined = String.join(String.valueOf(SEPARATOR), keys);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String[] decode(String cursor, int keyCount) throws IllegalAttributeException {
+        String joined;
+        try {
+            joined = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalAttributeException("Invalid cursor.");
+        }
+        var keys = joined.split(String.valueOf(SEPARATOR), -1);
+        if (keys.length != keyCount) throw new IllegalAttributeException("Invalid cursor.");
+        return keys;
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.microservices.user.service.impl;
+
+import com.microservices.user.dto.response.DomainResponse;
+import com.microservices.user.repository.DomainRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Memory resident copy of the domain table, searched through a {@link DomainIndex}.
+ * Writes of this instance are applied right away,
+ * writes of other instances show up after the next periodic reload.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DomainCatalog {
+
+    private final DomainRepository domainRepository;
+    private final Lock updateLock = new ReentrantLock();
+    private volatile DomainIndex index; // null until loaded, replaced under updateLock
+
+    public DomainIndex getIndex() {
+        var current = index;
+        if (current != null) return current;
+
+        updateLock.lock();
+        try {
+            if (index == null) reload();
+            return index;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Cannot load the domain catalog, it will be loaded on first use.", e);
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${domain-catalog.refresh-interval:PT5M}",
+            fixedDelayString = "${domain-catalog.refresh-interval:PT5M}"
+    )
+    public void refresh() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Cannot reload the domain catalog, keeping the current snapshot.", e);
+        }
+    }
+
+    /**
+     * Replace the snapshot with the content of the domain table.
+     */
+    public void reload() {
+        updateLock.lock();
+        try {
+            var domains = domainRepository.findAllDomainResponses();
+            index = new DomainIndex(domains);
+            log.debug("Loaded {} domains into the catalog", domains.size());
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Add a created domain or replace an updated one.
+     */
+    public void put(DomainResponse domain) {
+        updateLock.lock();
+        try {
+            if (index == null) {
+                reload();
+                return;
+            }
+            var domains = new ArrayList<DomainResponse>(index.size() + 1);
+            for (var existing : index.getDomains())
+                if (!existing.id().equals(domain.id())) domains.add(existing);
+            domains.add(domain);
+            index = new DomainIndex(domains);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    public void remove(String domainId) {
+        updateLock.lock();
+        try {
+            if (index == null) return;
+            var domains = index.getDomains().stream()
+                    .filter(existing -> !existing.id().equals(domainId))
+                    .toList();
+            if (domains.size() != index.size()) index = new DomainIndex(domains);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,215 @@
+package com.microservices.user.service.impl;
+
+import com.microservices.user.dto.response.DomainResponse;
+import com.microservices.user.dto.response.PagingObjectsResponse;
+
+import java.util.*;
+
+/**
+ * Immutable, case-insensitive search index over a snapshot of domains.
+ * Domains are kept sorted by name, every substring of up to {@link #GRAM_LENGTH} characters
+ * of a name maps to the (ascending) positions of the domains containing it.
+ * Substring search walks the shortest posting list of the query grams and verifies candidates,
+ * prefix search is a binary search over the sorted names.
+ */
+public final class DomainIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int[] NO_POSITIONS = new int[0];
+    private static final Comparator<DomainResponse> ORDER = Comparator
+            .comparing((DomainResponse domain) -> normalize(domain.name()))
+            .thenComparing(DomainResponse::id);
+
+    public static final DomainIndex EMPTY = new DomainIndex(List.of());
+
+    private final DomainResponse[] domains;
+    private final String[] names;
+    private final Map<String, int[]> postings;
+
+    public DomainIndex(Collection<DomainResponse> domains) {
+        this.domains = domains.toArray(DomainResponse[]::new);
+        Arrays.sort(this.domains, ORDER);
+        this.names = new String[this.domains.length];
+        for (int i = 0; i < this.domains.length; i++)
+            names[i] = normalize(this.domains[i].name());
+        this.postings = buildPostings(names);
+    }
+
+    public int size() {
+        return domains.length;
+    }
+
+    public List<DomainResponse> getDomains() {
+        return List.of(domains);
+    }
+
+    /**
+     * Domains whose name contains {@code query}, ignoring case, ordered by name.
+     */
+    public PagingObjectsResponse<DomainResponse> search(String query, int pageNumber, int pageSize) {
+        var matches = match(query);
+        var count = matches == null ? domains.length : matches.length;
+        var totalPages = pageSize == 0 ? 1 : (count + pageSize - 1) / pageSize;
+        var from = (int) Math.min((long) pageNumber * pageSize, count);
+        var to = Math.min(from + pageSize, count);
+
+        return new PagingObjectsResponse<>(
+                totalPages,
+                (long) count,
+                pageNumber,
+                pageSize,
+                to - from,
+                pageNumber == 0,
+                pageNumber + 1 >= totalPages,
+                slice(matches, from, to)
+        );
+    }
+
+    /**
+     * Seek a page of the domains whose name contains {@code query} relative to a (name, id) key,
+     * the cost does not depend on how deep the key is.
+     *
+     * @param key      (name, id) of the row to start from, null for the first page.
+     * @param backward Return the rows before {@code key} instead of the rows after it.
+     */
+    public Window scroll(String query, SortKey key, boolean backward, int pageSize) {
+        var matches = match(query);
+        var count = matches == null ? domains.length : matches.length;
+
+        int from, to;
+        if (key == null) {
+            from = 0;
+            to = Math.min(pageSize, count);
+        } else if (backward) {
+            to = seek(matches, count, key, false);
+            from = Math.max(0, to - pageSize);
+        } else {
+            from = seek(matches, count, key, true);
+            to = Math.min(from + pageSize, count);
+        }
+        return new Window(slice(matches, from, to), from > 0, to < count, count);
+    }
+
+    /**
+     * Up to {@code limit} domains whose name starts with {@code prefix}, ignoring case, ordered by name.
+     */
+    public List<DomainResponse> suggest(String prefix, int limit) {
+        var needle = normalize(prefix);
+        var from = lowerBound(needle);
+        var result = new ArrayList<DomainResponse>(Math.min(limit, domains.length - from));
+        for (int i = from; i < names.length && result.size() < limit && names[i].startsWith(needle); i++)
+            result.add(domains[i]);
+        return result;
+    }
+
+    private int[] shortestPosting(String needle) {
+        var shortest = (int[]) null;
+        for (int i = 0; i + GRAM_LENGTH <= needle.length(); i++) {
+            var posting = postings.get(needle.substring(i, i + GRAM_LENGTH));
+            if (posting == null) return NO_POSITIONS;
+            if (shortest == null || posting.length < shortest.length) shortest = posting;
+        }
+        return shortest;
+    }
+
+    private int lowerBound(String needle) {
+        int low = 0, high = names.length;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (names[middle].compareTo(needle) < 0) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * @return Ascending positions of the domains containing {@code query}, {@code null} when every domain does.
+     */
+    private int[] match(String query) {
+        var needle = normalize(query);
+        if (needle.isEmpty()) return null;
+
+        // every substring up to the gram length is indexed, longer ones are verified
+        if (needle.length() <= GRAM_LENGTH) return postings.getOrDefault(needle, NO_POSITIONS);
+        var candidates = shortestPosting(needle);
+
+        var matches = new int[candidates.length];
+        var count = 0;
+        for (var position : candidates)
+            if (names[position].contains(needle)) matches[count++] = position;
+        return count == matches.length ? matches : Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Index in {@code matches} of the first row after {@code key} (or at or after it, when not {@code exclusive}).
+     */
+    private int seek(int[] matches, int count, SortKey key, boolean exclusive) {
+        var name = normalize(key.name());
+        int low = 0, high = count;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            var position = matches == null ? middle : matches[middle];
+            var comparison = names[position].compareTo(name);
+            if (comparison == 0) comparison = domains[position].id().compareTo(key.id());
+            if (comparison < 0 || exclusive && comparison == 0) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    private List<DomainResponse> slice(int[] matches, int from, int to) {
+        var content = new ArrayList<DomainResponse>(to - from);
+        for (int i = from; i < to; i++)
+            content.add(domains[matches == null ? i : matches[i]]);
+        return content;
+    }
+
+    private static Map<String, int[]> buildPostings(String[] names) {
+        var builders = new HashMap<String, PostingBuilder>();
+        for (int position = 0; position < names.length; position++) {
+            var name = names[position];
+            for (int start = 0; start < name.length(); start++) {
+                var end = Math.min(start + GRAM_LENGTH, name.length());
+                for (int stop = start + 1; stop <= end; stop++)
+                    builders.computeIfAbsent(name.substring(start, stop), gram -> new PostingBuilder())
+                            .add(position);
+            }
+        }
+
+        var postings = new HashMap<String, int[]>(builders.size() * 4 / 3 + 1);
+        builders.forEach((gram, builder) -> postings.put(gram, builder.build()));
+        return postings;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    public record SortKey(String name, String id) {
+    }
+
+    /**
+     * @param total Number of domains matching the query in this snapshot.
+     */
+    public record Window(List<DomainResponse> content, boolean hasPrevious, boolean hasNext, int total) {
+    }
+
+    private static final class PostingBuilder {
+
+        private int[] positions = new int[4];
+        private int size;
+
+        void add(int position) {
+            // positions arrive in ascending order, a gram repeated in one name is added once
+            if (size > 0 && positions[size - 1] == position) return;
+            if (size == positions.length) positions = Arrays.copyOf(positions, size * 2);
+            positions[size++] = position;
+        }
+
+        int[] build() {
+            return Arrays.copyOf(positions, size);
+        }
+
+    }
+
+}
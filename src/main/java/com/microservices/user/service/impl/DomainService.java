@@ -2,6 +2,7 @@ package com.microservices.user.service.impl;
 
 import com.microservices.user.dto.request.DomainCreateRequest;
 import com.microservices.user.dto.request.DomainUpdateRequest;
+import com.microservices.user.dto.response.CursorPagingObjectsResponse;
 import com.microservices.user.dto.response.DomainResponse;
 import com.microservices.user.dto.response.PagingObjectsResponse;
 import com.microservices.user.entity.Domain;
@@ -10,18 +11,25 @@ import com.microservices.user.exception.NoEntityFoundException;
 import com.microservices.user.repository.DomainRepository;
 import com.microservices.user.service.IDomainService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class DomainService implements IDomainService {
 
+    private static final String NEXT = "n";
+    private static final String PREVIOUS = "p";
+
     private final DomainRepository domainRepository;
+    private final DomainCatalog domainCatalog;
 
     @Override
+    @Transactional(readOnly = true)
     public DomainResponse getDomain(String domainId) throws NoEntityFoundException {
         var domain = findDomainById(domainId);
         return mapDomainToResponse(domain);
@@ -29,34 +37,60 @@ public class DomainService implements IDomainService {
 
     @Override
     public PagingObjectsResponse<DomainResponse> getAllDomains(String name, Integer pageNumber, Integer pageSize) {
-        var pageable = PageRequest.of(pageNumber, pageSize, Sort.by("name"));
-        Page<Domain> domains;
-        if (name != null && !name.isBlank())
-            domains = domainRepository.findAllByNameContainsIgnoreCase(name, pageable);
-        else domains = domainRepository.findAll(pageable);
-
-        return new PagingObjectsResponse<>(
-                domains.getTotalPages(),
-                domains.getTotalElements(),
-                domains.getNumber(),
-                domains.getSize(),
-                domains.getNumberOfElements(),
-                domains.isFirst(),
-                domains.isLast(),
-                domains.map(this::mapDomainToResponse).toList()
+        var query = name == null || name.isBlank() ? "" : name;
+        return domainCatalog.getIndex().search(query, pageNumber, pageSize);
+    }
+
+    @Override
+    public CursorPagingObjectsResponse<DomainResponse> scrollDomains(
+            String name, String cursor, Integer pageSize, Boolean includeTotal
+    ) throws IllegalAttributeException {
+        var query = name == null || name.isBlank() ? "" : name;
+        DomainIndex.SortKey key = null;
+        var backward = false;
+        if (cursor != null && !cursor.isBlank()) {
+            var keys = CursorCodec.decode(cursor, 3);
+            if (!NEXT.equals(keys[0]) && !PREVIOUS.equals(keys[0]))
+                throw new IllegalAttributeException("Invalid cursor.");
+            key = new DomainIndex.SortKey(keys[1], keys[2]);
+            backward = PREVIOUS.equals(keys[0]);
+        }
+
+        var window = domainCatalog.getIndex().scroll(query, key, backward, pageSize);
+        var content = window.content();
+        String previousCursor = null, nextCursor = null;
+        if (!content.isEmpty()) {
+            if (window.hasPrevious()) previousCursor = encodeCursor(PREVIOUS, content.getFirst());
+            if (window.hasNext()) nextCursor = encodeCursor(NEXT, content.getLast());
+        }
+        return new CursorPagingObjectsResponse<>(
+                pageSize,
+                content.size(),
+                includeTotal ? (long) window.total() : null,
+                previousCursor,
+                nextCursor,
+                content
         );
     }
 
+    @Override
+    public List<DomainResponse> suggestDomains(String prefix, Integer limit) {
+        return domainCatalog.getIndex().suggest(prefix, limit);
+    }
+
     @Override
     public String createDomain(DomainCreateRequest domainCreateRequest) {
         var domain = Domain.builder()
                 .name(domainCreateRequest.name())
                 .description(domainCreateRequest.description())
                 .build();
-        return domainRepository.save(domain).getId();
+        var savedDomain = domainRepository.save(domain);
+        domainCatalog.put(mapDomainToResponse(savedDomain));
+        return savedDomain.getId();
     }
 
     @Override
+    @Transactional
     public void updateDomain(String domainId, DomainUpdateRequest domainUpdateRequest)
             throws NoEntityFoundException, IllegalAttributeException {
         var domain = findDomainById(domainId);
@@ -76,12 +110,17 @@ public class DomainService implements IDomainService {
             isUpdated = true;
         }
 
-        if (isUpdated) domainRepository.save(domain);
+        if (isUpdated) {
+            domainRepository.save(domain);
+            var response = mapDomainToResponse(domain);
+            afterCommit(() -> domainCatalog.put(response));
+        }
     }
 
     @Override
     public void deleteDomain(String domainId) {
         domainRepository.deleteById(domainId);
+        domainCatalog.remove(domainId);
     }
 
     private Domain findDomainById(String domainId) throws NoEntityFoundException {
@@ -89,7 +128,26 @@ public class DomainService implements IDomainService {
                 .orElseThrow(() -> new NoEntityFoundException("No domain found with id: " + domainId));
     }
 
-    private DomainResponse mapDomainToResponse(Domain domain) {
+    /**
+     * Run once the current transaction, if any, is committed,
+     * so that the catalog never serves a change that is rolled back.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else action.run();
+    }
+
+    private static String encodeCursor(String direction, DomainResponse domain) {
+        return CursorCodec.encode(direction, domain.name() == null ? "" : domain.name(), domain.id());
+    }
+
+    static DomainResponse mapDomainToResponse(Domain domain) {
         return new DomainResponse(
                 domain.getId(),
                 domain.getName(),
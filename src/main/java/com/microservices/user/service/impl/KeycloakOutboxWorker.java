@@ -0,0 +1,152 @@
+package com.microservices.user.service.impl;
+
+import com.microservices.user.config.KeycloakConfigurationProperties;
+import com.microservices.user.constant.OutboxEventStatus;
+import com.microservices.user.constant.OutboxEventType;
+import com.microservices.user.entity.OutboxEvent;
+import com.microservices.user.exception.KeycloakErrorException;
+import com.microservices.user.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delivers the Keycloak calls recorded in the outbox, a batch of due events per poll.
+ * A poll first checks for due events in a read-only transaction, so that idle polls do not lock or write anything.
+ * Events are claimed in a short transaction that hides them from other instances for a lease,
+ * Keycloak is called outside any transaction, and the outcome of the whole batch is written
+ * in a second short transaction: delivered events are deleted, failed ones are retried with
+ * an exponential backoff until they reach the maximum number of attempts.
+ */
+@Slf4j
+@Component
+public class KeycloakOutboxWorker {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KeycloakService keycloakService;
+    private final KeycloakConfigurationProperties.Outbox properties;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public KeycloakOutboxWorker(OutboxEventRepository outboxEventRepository,
+                                KeycloakService keycloakService,
+                                KeycloakConfigurationProperties keycloakProperties,
+                                PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.keycloakService = keycloakService;
+        this.properties = keycloakProperties.getOutbox();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @Scheduled(fixedDelayString = "${keycloak.outbox.poll-interval:PT1S}")
+    public void poll() {
+        try {
+            int processed;
+            do processed = processBatch();
+            while (processed == properties.getBatchSize());
+        } catch (RuntimeException e) {
+            log.warn("Cannot process the Keycloak outbox, retrying on the next poll.", e);
+        }
+    }
+
+    /**
+     * Claim, deliver and complete one batch of due events.
+     *
+     * @return Number of events claimed.
+     */
+    public int processBatch() {
+        if (!isAnyDue()) return 0;
+        var events = claim();
+        if (events.isEmpty()) return 0;
+
+        var delivered = new ArrayList<Long>(events.size());
+        var errors = new HashMap<Long, String>();
+        for (var event : events) {
+            try {
+                deliver(event);
+                delivered.add(event.getId());
+            } catch (RuntimeException e) {
+                log.debug("Cannot deliver outbox event {}", event.getId(), e);
+                errors.put(event.getId(), String.valueOf(e.getMessage()));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) outboxEventRepository.deleteAllByIdInBatch(delivered);
+            if (!errors.isEmpty()) outboxEventRepository.findAllById(errors.keySet())
+                    .forEach(event -> recordFailure(event, errors.get(event.getId())));
+        });
+        return events.size();
+    }
+
+    /**
+     * Can read from a replica, events behind by the replication lag are delivered on a later poll.
+     */
+    private boolean isAnyDue() {
+        return Boolean.TRUE.equals(readOnlyTransactionTemplate.execute(status -> outboxEventRepository
+                .existsByStatusAndNextAttemptAtLessThanEqual(OutboxEventStatus.PENDING, Instant.now())));
+    }
+
+    private List<OutboxEvent> claim() {
+        return transactionTemplate.execute(status -> {
+            var now = Instant.now();
+            var events = outboxEventRepository.findDueForUpdate(
+                    OutboxEventStatus.PENDING,
+                    now,
+                    Limit.of(properties.getBatchSize())
+            );
+            var leaseEnd = now.plus(properties.getLease());
+            events.forEach(event -> event.setNextAttemptAt(leaseEnd));
+            return events;
+        });
+    }
+
+    private void deliver(OutboxEvent event) {
+        if (event.getType() == OutboxEventType.DELETE_KEYCLOAK_USER) {
+            try {
+                keycloakService.deleteUser(event.getAggregateId());
+            } catch (KeycloakErrorException e) {
+                // already gone, e.g. a redelivery after a lost acknowledgement
+                if (e.getStatusCode().value() != HttpStatus.NOT_FOUND.value()) throw e;
+            }
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, String error) {
+        var attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (attempts >= properties.getMaxAttempts()) {
+            event.setStatus(OutboxEventStatus.FAILED);
+            log.error("Giving up outbox event {} ({} {}) after {} attempts: {}",
+                    event.getId(), event.getType(), event.getAggregateId(), attempts, error);
+            return;
+        }
+        event.setNextAttemptAt(Instant.now().plus(backoff(attempts)));
+    }
+
+    /**
+     * Exponential backoff with jitter, so that events failing together are not retried together.
+     */
+    private Duration backoff(int attempts) {
+        var initial = properties.getInitialBackoff().toMillis();
+        var bound = Math.min(initial << Math.min(attempts - 1, 30), properties.getMaxBackoff().toMillis());
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(bound / 2, bound + 1));
+    }
+
+}
@@ -1,24 +1,34 @@
 package com.microservices.user.service.impl;
 
+import com.microservices.user.config.KeycloakClientConfiguration;
 import com.microservices.user.config.KeycloakConfigurationProperties;
 import com.microservices.user.constant.OAuth2Constants;
+import com.microservices.user.constant.RegisterStatus;
 import com.microservices.user.dto.keycloak.ErrorMessageResponse;
 import com.microservices.user.dto.keycloak.ErrorWithDescriptionResponse;
 import com.microservices.user.dto.keycloak.ErrorWithFieldResponse;
 import com.microservices.user.dto.keycloak.KeycloakRegisterRequest;
 import com.microservices.user.dto.response.AuthenticatedResponse;
+import com.microservices.user.dto.response.UserRegisterResultResponse;
 import com.microservices.user.dto.request.UserLoginRequest;
 import com.microservices.user.dto.request.UserRegisterRequest;
 import com.microservices.user.entity.User;
 import com.microservices.user.exception.KeycloakErrorException;
 import com.microservices.user.repository.UserRepository;
 import com.microservices.user.service.IKeycloakService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.converter.FormHttpMessageConverter;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
@@ -26,6 +36,12 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -36,27 +52,41 @@ public class KeycloakService implements IKeycloakService {
     private final KeycloakConfigurationProperties properties;
     private final RestClient client;
 
-    private final List<String> freeCredentialPaths = new ArrayList<>();
+    /**
+     * Requests to paths containing one of these are sent without the service account token.
+     */
+    private static final List<String> FREE_CREDENTIAL_PATHS = List.of("token", "logout");
 
-    private final UserRepository userRepository;
+    private final RequestCoalescer<AuthenticatedResponse> refreshCoalescer;
 
-    private AuthenticatedResponse credential;
-    private Long credentialExpiresIn = 0L; // millisecond
+    private final UserRepository userRepository;
+    private final KeycloakTokenManager tokenManager;
+    private final Validator validator;
+    private final Environment environment;
 
     @Autowired
     public KeycloakService(
             final KeycloakConfigurationProperties properties,
-            final UserRepository userRepository
+            final UserRepository userRepository,
+            final KeycloakTokenManager tokenManager,
+            @Qualifier(KeycloakClientConfiguration.REQUEST_FACTORY) final ClientHttpRequestFactory requestFactory,
+            final Validator validator,
+            final Environment environment
     ) {
         this.userRepository = userRepository;
+        this.tokenManager = tokenManager;
+        this.validator = validator;
+        this.environment = environment;
         this.properties = properties;
         this.tokenUrl = properties.getServerUrl() + "/realms/"
                         + properties.getRealm()
                         + "/protocol/openid-connect/token";
         this.adminRealmPath = properties.getServerUrl() + "/admin/realms/" + properties.getRealm();
-        this.client = initClient();
-
-        freeCredentialPaths.addAll(List.of("token", "logout"));
+        this.client = initClient(requestFactory);
+        this.refreshCoalescer = new RequestCoalescer<>(
+                properties.getRefreshCoalescing().getWindow(),
+                properties.getRefreshCoalescing().getMaximumSize()
+        );
     }
 
     public AuthenticatedResponse login(UserLoginRequest userLoginRequest) throws KeycloakErrorException {
@@ -112,7 +142,16 @@ public class KeycloakService implements IKeycloakService {
         }
     }
 
+    /**
+     * Concurrent refreshes with the same token share one Keycloak call and its response,
+     * with refresh token rotation all but one of them would otherwise be rejected.
+     */
     public AuthenticatedResponse refreshToken(String refreshToken) throws KeycloakErrorException {
+        if (properties.getRefreshCoalescing().getWindow().isZero()) return requestRefreshToken(refreshToken);
+        return refreshCoalescer.execute(refreshToken, () -> requestRefreshToken(refreshToken));
+    }
+
+    private AuthenticatedResponse requestRefreshToken(String refreshToken) throws KeycloakErrorException {
         var body = Map.of(
                 "grant_type", List.of("refresh_token"),
                 "refresh_token", List.of(refreshToken),
@@ -146,23 +185,51 @@ public class KeycloakService implements IKeycloakService {
     public String register(Boolean isExpert, UserRegisterRequest userRegisterRequest)
             throws KeycloakErrorException {
         var createResponse = registerUserWithKeycloak(userRegisterRequest);
-        var locationPath = Objects.requireNonNull(createResponse.getHeaders().getLocation()).getPath();
-        var userId = locationPath.substring(locationPath.lastIndexOf('/') + 1);
+        var userId = extractUserId(createResponse);
 
         // save new user to database
-        var newUser = User.builder()
-                .id(userId)
-                .isExpert(isExpert)
-                .firstName(userRegisterRequest.firstName())
-                .lastName(userRegisterRequest.lastName())
-                .gender(userRegisterRequest.gender())
-                .birthDate(userRegisterRequest.birthdate())
-                .email(userRegisterRequest.email())
-                .build();
-        userRepository.save(newUser);
+        userRepository.save(toUser(userId, isExpert, userRegisterRequest));
         return userId;
     }
 
+    public List<UserRegisterResultResponse> registerAll(Boolean isExpert, List<UserRegisterRequest> userRegisterRequests) {
+        var bulk = properties.getBulkRegistration();
+        var results = new AtomicReferenceArray<UserRegisterResultResponse>(userRegisterRequests.size());
+        var createdUsers = new ConcurrentLinkedQueue<CreatedUser>();
+
+        // register with Keycloak concurrently, at most `parallelism` requests in flight
+        var permits = new Semaphore(bulk.getParallelism());
+        try (var executor = createBulkExecutor(bulk.getParallelism())) {
+            for (int i = 0; i < userRegisterRequests.size(); i++) {
+                final var index = i;
+                final var request = userRegisterRequests.get(i);
+                var violation = validateRegisterRequest(request);
+                if (violation != null) {
+                    results.set(index, new UserRegisterResultResponse(index, RegisterStatus.INVALID, null, violation));
+                    continue;
+                }
+
+                permits.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        results.set(index, registerBulkItem(index, isExpert, request, createdUsers));
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        var usersToInsert = createdUsers.stream()
+                .sorted(Comparator.comparingInt(CreatedUser::index))
+                .toList();
+        insertCreatedUsers(usersToInsert, bulk.getInsertBatchSize(), results);
+
+        var responses = new ArrayList<UserRegisterResultResponse>(results.length());
+        for (int i = 0; i < results.length(); i++) responses.add(results.get(i));
+        return responses;
+    }
+
     public boolean deleteUser(String userId) throws KeycloakErrorException {
         try {
             return client.delete()
@@ -236,44 +303,115 @@ public class KeycloakService implements IKeycloakService {
         }
     }
 
-    private <K, V> RestClient.RequestBodySpec createFormUrlEncodedRequest(String uri, Map<K, List<V>> body)
-            throws HttpClientErrorException {
-        return client.post()
-                .uri(uri)
-                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-                .body(CollectionUtils.toMultiValueMap(body));
+    private UserRegisterResultResponse registerBulkItem(int index,
+                                                        Boolean isExpert,
+                                                        UserRegisterRequest userRegisterRequest,
+                                                        Queue<CreatedUser> createdUsers) {
+        try {
+            var userId = extractUserId(registerUserWithKeycloak(userRegisterRequest));
+            createdUsers.add(new CreatedUser(index, toUser(userId, isExpert, userRegisterRequest)));
+            return new UserRegisterResultResponse(index, RegisterStatus.CREATED, userId, null);
+        } catch (KeycloakErrorException e) {
+            var statusCode = e.getStatusCode();
+            var status = RegisterStatus.FAILED;
+            if (statusCode.isSameCodeAs(HttpStatus.CONFLICT)) status = RegisterStatus.CONFLICT;
+            else if (statusCode.isSameCodeAs(HttpStatus.BAD_REQUEST)) status = RegisterStatus.INVALID;
+            return new UserRegisterResultResponse(index, status, null, e.getErrorMessage());
+        } catch (RuntimeException e) {
+            log.warn("Cannot register user at index {}", index, e);
+            return new UserRegisterResultResponse(index, RegisterStatus.FAILED, null, e.getMessage());
+        }
     }
 
-    private AuthenticatedResponse getServiceAccountCredential() throws HttpClientErrorException {
-        var tokenBody = Map.of(
-                "grant_type", List.of(OAuth2Constants.CLIENT_CREDENTIALS),
-                "client_id", List.of(properties.getClientId()),
-                "client_secret", List.of(properties.getClientSecret())
-        );
+    /**
+     * Insert users registered with Keycloak in JDBC batches.
+     * When a batch is rejected, its users are inserted one by one to find the failing ones,
+     * which are then removed from Keycloak again.
+     */
+    private void insertCreatedUsers(List<CreatedUser> createdUsers,
+                                    int batchSize,
+                                    AtomicReferenceArray<UserRegisterResultResponse> results) {
+        for (int from = 0; from < createdUsers.size(); from += batchSize) {
+            var batch = createdUsers.subList(from, Math.min(from + batchSize, createdUsers.size()));
+            try {
+                userRepository.insertAll(batch.stream().map(CreatedUser::user).toList(), batchSize);
+            } catch (DataAccessException e) {
+                log.warn("Cannot insert a batch of {} users, inserting them one by one", batch.size(), e);
+                batch.forEach(createdUser -> insertCreatedUser(createdUser, results));
+            }
+        }
+    }
 
-        var client = RestClient.builder()
-                .messageConverters(configurer -> configurer.add(new FormHttpMessageConverter()))
+    private void insertCreatedUser(CreatedUser createdUser, AtomicReferenceArray<UserRegisterResultResponse> results) {
+        var userId = createdUser.user().getId();
+        try {
+            userRepository.insertAll(List.of(createdUser.user()), 1);
+        } catch (DataAccessException e) {
+            log.warn("Cannot insert user {}", userId, e);
+            results.set(createdUser.index(), new UserRegisterResultResponse(
+                    createdUser.index(),
+                    RegisterStatus.FAILED,
+                    null,
+                    "Cannot save user data."
+            ));
+            try {
+                deleteUser(userId);
+            } catch (RuntimeException ex) {
+                log.error("Cannot remove user {} from Keycloak after a failed insert", userId, ex);
+            }
+        }
+    }
+
+    private String validateRegisterRequest(UserRegisterRequest userRegisterRequest) {
+        if (userRegisterRequest == null) return "user cannot be null.";
+        var violations = validator.validate(userRegisterRequest);
+        if (violations.isEmpty()) return null;
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(" "));
+    }
+
+    private ExecutorService createBulkExecutor(int parallelism) {
+        if (Threading.VIRTUAL.isActive(environment))
+            return Executors.newVirtualThreadPerTaskExecutor();
+        return Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().name("keycloak-bulk-", 0).factory());
+    }
+
+    private String extractUserId(ResponseEntity<Void> createResponse) {
+        var locationPath = Objects.requireNonNull(createResponse.getHeaders().getLocation()).getPath();
+        return locationPath.substring(locationPath.lastIndexOf('/') + 1);
+    }
+
+    private User toUser(String userId, Boolean isExpert, UserRegisterRequest userRegisterRequest) {
+        return User.builder()
+                .id(userId)
+                .isExpert(isExpert)
+                .firstName(userRegisterRequest.firstName())
+                .lastName(userRegisterRequest.lastName())
+                .gender(userRegisterRequest.gender())
+                .birthDate(userRegisterRequest.birthdate())
+                // the batch insert bypasses the entity callbacks
+                .email(User.normalizeEmail(userRegisterRequest.email()))
                 .build();
+    }
+
+    private <K, V> RestClient.RequestBodySpec createFormUrlEncodedRequest(String uri, Map<K, List<V>> body)
+            throws HttpClientErrorException {
         return client.post()
-                .uri(tokenUrl)
+                .uri(uri)
                 .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-                .body(CollectionUtils.toMultiValueMap(tokenBody))
-                .retrieve()
-                .toEntity(AuthenticatedResponse.class)
-                .getBody();
+                .body(CollectionUtils.toMultiValueMap(body));
     }
 
-    private RestClient initClient() {
+    private RestClient initClient(ClientHttpRequestFactory requestFactory) {
         return RestClient.builder()
+                .requestFactory(requestFactory)
                 .messageConverters(configurer -> configurer.add(new FormHttpMessageConverter()))
                 .requestInterceptor((request, body, execution) -> {
                     final var path = request.getURI().getPath();
-                    if (freeCredentialPaths.stream().noneMatch(path::contains)) {
-                        if (credential == null || System.currentTimeMillis() > credentialExpiresIn) {
-                            credential = getServiceAccountCredential();
-                            credentialExpiresIn = System.currentTimeMillis() + credential.expiresIn() * 1000;
-                        }
-                        var token = credential.tokenType() + " " + credential.accessToken();
+                    if (requiresServiceAccountToken(path)) {
+                        var token = tokenManager.getAuthorizationHeader();
                         var headers = request.getHeaders();
                         headers.remove(HttpHeaders.AUTHORIZATION);
                         headers.add(HttpHeaders.AUTHORIZATION, token);
@@ -284,4 +422,13 @@ public class KeycloakService implements IKeycloakService {
                 .build();
     }
 
+    static boolean requiresServiceAccountToken(String path) {
+        for (var freePath : FREE_CREDENTIAL_PATHS)
+            if (path.contains(freePath)) return false;
+        return true;
+    }
+
+    private record CreatedUser(int index, User user) {
+    }
+
 }
@@ -0,0 +1,216 @@
+package com.microservices.user.service.impl;
+
+import com.microservices.user.config.KeycloakClientConfiguration;
+import com.microservices.user.config.KeycloakConfigurationProperties;
+import com.microservices.user.constant.OAuth2Constants;
+import com.microservices.user.dto.response.AuthenticatedResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caches the service account credential used for Keycloak admin calls.
+ * Only one thread fetches a token at a time while the others wait for it,
+ * and the token is refreshed in background before it expires.
+ */
+@Slf4j
+@Component
+public class KeycloakTokenManager implements MeterBinder {
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+
+    private final KeycloakConfigurationProperties properties;
+    private final String tokenUrl;
+    private final RestClient client;
+
+    private final ReentrantLock fetchLock = new ReentrantLock();
+    private final ScheduledExecutorService refresher;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private volatile CachedToken token;
+    private ScheduledFuture<?> scheduledRefresh; // guarded by fetchLock
+
+    public KeycloakTokenManager(
+            final KeycloakConfigurationProperties properties,
+            @Qualifier(KeycloakClientConfiguration.REQUEST_FACTORY) final ClientHttpRequestFactory requestFactory,
+            final Environment environment
+    ) {
+        this.properties = properties;
+        this.tokenUrl = properties.getServerUrl() + "/realms/"
+                        + properties.getRealm()
+                        + "/protocol/openid-connect/token";
+        this.client = RestClient.builder()
+                .requestFactory(requestFactory)
+                .messageConverters(configurer -> configurer.add(new FormHttpMessageConverter()))
+                .build();
+        var threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? Thread.ofVirtual().name("keycloak-token-refresher").factory()
+                : Thread.ofPlatform().name("keycloak-token-refresher").daemon().factory();
+        this.refresher = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    /**
+     * Get the Authorization header value of the service account.
+     * A cached token is returned while it is usable, otherwise a new one is requested.
+     *
+     * @return Header value, e.g. {@code Bearer eyJhbGciOi...}.
+     * @throws RestClientException Keycloak could not issue a token.
+     */
+    public String getAuthorizationHeader() throws RestClientException {
+        var current = token;
+        if (current != null && current.isUsable()) {
+            hits.incrementAndGet();
+            return current.authorizationHeader();
+        }
+
+        fetchLock.lock();
+        try {
+            // another caller may have fetched the token while this one was waiting
+            current = token;
+            if (current != null && current.isUsable()) {
+                hits.incrementAndGet();
+                return current.authorizationHeader();
+            }
+            return refresh().authorizationHeader();
+        } finally {
+            fetchLock.unlock();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getRefreshCount() {
+        return refreshes.get();
+    }
+
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCounter(registry, "hit", hits);
+        bindCounter(registry, "refresh", refreshes);
+        bindCounter(registry, "failure", failures);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Request a new token and schedule its background refresh.
+     * Callers must hold {@link #fetchLock}.
+     */
+    private CachedToken refresh() throws RestClientException {
+        AuthenticatedResponse credential;
+        try {
+            credential = requestToken();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            throw e;
+        }
+        if (credential == null || credential.accessToken() == null) {
+            failures.incrementAndGet();
+            throw new RestClientException("Keycloak returned no service account token.");
+        }
+        refreshes.incrementAndGet();
+
+        var lifetime = credential.expiresIn() * 1000;
+        var skew = properties.getTokenExpirySkew().toMillis();
+        var usableFor = Math.max(lifetime - skew, lifetime / 2);
+        var refreshIn = Math.max(lifetime - 2 * skew, lifetime / 2);
+
+        var newToken = new CachedToken(
+                credential.tokenType() + " " + credential.accessToken(),
+                System.currentTimeMillis() + usableFor
+        );
+        token = newToken;
+        scheduleRefresh(refreshIn);
+        log.debug("Fetched service account token, refreshing in {} ms", refreshIn);
+        return newToken;
+    }
+
+    private void refreshInBackground() {
+        fetchLock.lock();
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            var current = token;
+            if (current != null && current.isUsable()) {
+                log.warn("Cannot refresh service account token, retrying in {}", RETRY_DELAY, e);
+                scheduleRefresh(RETRY_DELAY.toMillis());
+            } else {
+                log.warn("Cannot refresh service account token, it will be fetched on next call", e);
+            }
+        } finally {
+            fetchLock.unlock();
+        }
+    }
+
+    private void scheduleRefresh(long delayMillis) {
+        if (scheduledRefresh != null) scheduledRefresh.cancel(false);
+        if (refresher.isShutdown()) return;
+        scheduledRefresh = refresher.schedule(this::refreshInBackground, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private AuthenticatedResponse requestToken() throws RestClientException {
+        var tokenBody = Map.of(
+                "grant_type", List.of(OAuth2Constants.CLIENT_CREDENTIALS),
+                "client_id", List.of(properties.getClientId()),
+                "client_secret", List.of(properties.getClientSecret())
+        );
+
+        return client.post()
+                .uri(tokenUrl)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(CollectionUtils.toMultiValueMap(tokenBody))
+                .retrieve()
+                .toEntity(AuthenticatedResponse.class)
+                .getBody();
+    }
+
+    private void bindCounter(MeterRegistry registry, String result, AtomicLong counter) {
+        FunctionCounter.builder("keycloak.service.token", counter, AtomicLong::get)
+                .description("Service account token lookups by result")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private record CachedToken(String authorizationHeader, long usableUntil) {
+
+        boolean isUsable() {
+            return System.currentTimeMillis() < usableUntil;
+        }
+
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.microservices.user.service.impl;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent calls with the same key share one execution.
+ * The first caller runs the call on its own thread, callers arriving while it runs wait for its result,
+ * and callers arriving up to {@code window} after it succeeded get the same result.
+ * A failure is shared with the callers already waiting, the next caller runs the call again.
+ * Keys are stored as SHA-256 digests, so that secrets used as keys are not kept in memory.
+ */
+final class RequestCoalescer<V> {
+
+    private final AsyncCache<String, V> results;
+
+    RequestCoalescer(Duration window, long maximumSize) {
+        // an entry expires once its future completes, failed futures are removed right away
+        this.results = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maximumSize)
+                .buildAsync();
+    }
+
+    V execute(String key, Supplier<V> call) {
+        var digest = digest(key);
+        var execution = new CompletableFuture<V>();
+        var running = results.asMap().putIfAbsent(digest, execution);
+        if (running != null) return join(running);
+
+        try {
+            var result = call.get();
+            execution.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            execution.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> execution) {
+        try {
+            return execution.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private static String digest(String key) {
+        try {
+            var hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
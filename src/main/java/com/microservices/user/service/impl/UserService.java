@@ -1,22 +1,41 @@
 package com.microservices.user.service.impl;
 
+import com.microservices.user.constant.CacheNames;
+import com.microservices.user.constant.OutboxEventType;
 import com.microservices.user.dto.request.UserDomainsUpdateRequest;
 import com.microservices.user.dto.request.UserUpdateRequest;
+import com.microservices.user.dto.response.CursorPagingObjectsResponse;
+import com.microservices.user.dto.response.PagingObjectsResponse;
 import com.microservices.user.dto.response.UserResponse;
-import com.microservices.user.entity.Domain;
+import com.microservices.user.entity.OutboxEvent;
 import com.microservices.user.entity.User;
 import com.microservices.user.exception.IllegalAttributeException;
-import com.microservices.user.exception.KeycloakErrorException;
 import com.microservices.user.exception.NoEntityFoundException;
 import com.microservices.user.repository.DomainRepository;
+import com.microservices.user.repository.OutboxEventRepository;
 import com.microservices.user.repository.UserRepository;
+import com.microservices.user.repository.projection.UserDomainId;
+import com.microservices.user.repository.projection.UserRow;
 import com.microservices.user.service.IUserService;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -25,22 +44,30 @@ public class UserService implements IUserService {
 
     private final UserRepository userRepository;
     private final DomainRepository domainRepository;
-    private final KeycloakService keycloakService;
+    private final OutboxEventRepository outboxEventRepository;
+    private final CacheManager cacheManager;
+    private final PlatformTransactionManager transactionManager;
 
+    // not transactional, a cache hit must not check out a connection; loaders run in their own read-only transaction
     @Override
     public UserResponse getUserById(String userId) throws NoEntityFoundException {
-        var user = findUserById(userId);
-        return convertToUserResponse(user);
+        return getCached(cache(CacheNames.USERS), userId, () -> readOnly(() -> convertToUserResponse(
+                userRepository.findRowById(userId)
+                        .orElseThrow(() -> new NoEntityFoundException("No user found with id " + userId))
+        )));
     }
 
     @Override
     public UserResponse getUserByEmail(String userEmail) throws NoEntityFoundException {
-        var user = userRepository.findByEmailIgnoreCase(userEmail)
-                .orElseThrow(() -> new NoEntityFoundException("No user found with email: " + userEmail));
-        return convertToUserResponse(user);
+        var email = User.normalizeEmail(userEmail);
+        var userId = getCached(cache(CacheNames.USER_IDS_BY_EMAIL), email, () -> readOnly(() ->
+                userRepository.findIdByEmail(email)
+                        .orElseThrow(() -> new NoEntityFoundException("No user found with email: " + userEmail))));
+        return getUserById(userId);
     }
 
     @Override
+    @Transactional
     public void updateUser(String userId, UserUpdateRequest userUpdateRequest)
             throws NoEntityFoundException, IllegalAttributeException {
         var user = findUserById(userId);
@@ -72,51 +99,85 @@ public class UserService implements IUserService {
             isUpdated = true;
         }
 
-        if (isUpdated) userRepository.save(user);
+        if (isUpdated) {
+            userRepository.save(user);
+            evictUser(userId, null);
+        }
     }
 
     @Override
+    @Transactional
     public void updateUserDomains(String userId, UserDomainsUpdateRequest userDomainsUpdateRequest)
-            throws NoEntityFoundException, IllegalAttributeException {
-        var user = findUserById(userId);
-        var isUpdated = false;
+            throws NoEntityFoundException {
+        if (!userRepository.existsById(userId))
+            throw new NoEntityFoundException("No user found with id " + userId);
 
         var domainIds = userDomainsUpdateRequest.domainIds();
-        if (domainIds != null) {
-            var currentDomain = user.getDomains();
-            var currentDomainIds = currentDomain.stream().map(Domain::getId).toList();
-            var validDomainIds = userDomainsUpdateRequest.domainIds().stream()
-                    .filter(id -> !currentDomainIds.contains(id))
-                    .toList();
-            if (validDomainIds.isEmpty()) return;
-
-            var newDomains = domainRepository.findAllById(validDomainIds);
-
-            currentDomain.addAll(newDomains);
-            user.setDomains(currentDomain);
-            isUpdated = true;
-        }
+        if (domainIds.isEmpty()) return;
 
-        if (isUpdated) userRepository.save(user);
+        var changedLinks = switch (userDomainsUpdateRequest.operator()) {
+            case ADD -> userRepository.addDomains(userId, domainIds);
+            case REMOVE -> userRepository.removeDomains(userId, domainIds);
+        };
+        if (changedLinks > 0) evictUser(userId, null);
     }
 
     @Override
-    public List<UserResponse> getAllExpertsByDomain(String domainId) {
-        var domain = domainRepository.findById(domainId)
-                .orElseThrow(() -> new NoEntityFoundException("No entity found with id: " + domainId));
-        return domain.getUsers().stream()
-                .filter(User::getIsExpert)
-                .map(this::convertToUserResponse)
-                .toList();
+    @Transactional(readOnly = true)
+    public PagingObjectsResponse<UserResponse> getAllExpertsByDomain(String domainId, Integer pageNumber, Integer pageSize)
+            throws NoEntityFoundException {
+        checkDomainExists(domainId);
+        var pageable = PageRequest.of(pageNumber, pageSize, Sort.by("id"));
+        var experts = userRepository.findExpertsByDomainId(domainId, pageable);
+
+        return new PagingObjectsResponse<>(
+                experts.getTotalPages(),
+                experts.getTotalElements(),
+                experts.getNumber(),
+                experts.getSize(),
+                experts.getNumberOfElements(),
+                experts.isFirst(),
+                experts.isLast(),
+                convertToUserResponses(experts.getContent())
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPagingObjectsResponse<UserResponse> scrollExpertsByDomain(String domainId, String cursor, Integer pageSize)
+            throws NoEntityFoundException, IllegalAttributeException {
+        checkDomainExists(domainId);
+        var afterUserId = cursor == null || cursor.isBlank() ? "" : CursorCodec.decode(cursor, 1)[0];
+        // one extra row tells whether there is a next page
+        var experts = userRepository.findExpertsByDomainIdAfter(domainId, afterUserId, PageRequest.of(0, pageSize + 1));
+
+        var hasNext = experts.size() > pageSize;
+        var page = hasNext ? experts.subList(0, pageSize) : experts;
+        var nextCursor = hasNext ? CursorCodec.encode(page.getLast().id()) : null;
+        return new CursorPagingObjectsResponse<>(
+                pageSize,
+                page.size(),
+                null,
+                null,
+                nextCursor,
+                convertToUserResponses(page)
+        );
     }
 
     @Override
-    @Transactional(rollbackOn = {KeycloakErrorException.class})
+    @Transactional
     public void deleteUser(String userId) throws NoEntityFoundException {
         var user = findUserById(userId);
         userRepository.delete(user);
-        var successful = keycloakService.deleteUser(userId);
-        if (successful) log.debug("Successfully deleted user: {}", userId);
+        // removed from Keycloak by the KeycloakOutboxWorker once this transaction is committed
+        var now = Instant.now();
+        outboxEventRepository.save(OutboxEvent.builder()
+                .type(OutboxEventType.DELETE_KEYCLOAK_USER)
+                .aggregateId(userId)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
+        evictUser(userId, user.getEmail());
     }
 
     private User findUserById(String userId) throws NoEntityFoundException {
@@ -124,18 +185,96 @@ public class UserService implements IUserService {
                 .orElseThrow(() -> new NoEntityFoundException("No user found with id " + userId));
     }
 
-    private UserResponse convertToUserResponse(User user) {
-        var domainIds = user.getDomains().stream()
-                .map(Domain::getId)
+    /**
+     * Run a read in a read-only transaction, routed to a replica when replicas are configured.
+     */
+    private <T> T readOnly(Supplier<T> read) {
+        var template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> read.get());
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name), "No cache named " + name);
+    }
+
+    /**
+     * Read through a cache, loading a missing key only once however many callers wait for it.
+     * Exceptions of the loader are rethrown as they are and nothing is cached.
+     */
+    private <T> T getCached(Cache cache, Object key, Callable<T> loader) {
+        try {
+            return cache.get(key, loader);
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Evict cached entries of a user once the current transaction, if any, is committed,
+     * so that a concurrent read cannot cache the old state again.
+     *
+     * @param email Email of the user, null if it has not changed.
+     */
+    private void evictUser(String userId, String email) {
+        Runnable eviction = () -> {
+            cache(CacheNames.USERS).evict(userId);
+            if (email != null) cache(CacheNames.USER_IDS_BY_EMAIL).evict(User.normalizeEmail(email));
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else eviction.run();
+    }
+
+    private void checkDomainExists(String domainId) throws NoEntityFoundException {
+        // a lookup by id, unlike an exists query, is served by the second-level cache
+        if (domainRepository.findById(domainId).isEmpty())
+            throw new NoEntityFoundException("No entity found with id: " + domainId);
+    }
+
+    /**
+     * Convert many users, loading the domain ids of all of them in one query.
+     */
+    private List<UserResponse> convertToUserResponses(List<UserRow> users) {
+        if (users.isEmpty()) return List.of();
+        var userIds = users.stream().map(UserRow::id).toList();
+        return toUserResponses(users, userRepository.findDomainIdsByUserIds(userIds));
+    }
+
+    /**
+     * Map users given the join table rows of their domains.
+     */
+    static List<UserResponse> toUserResponses(List<UserRow> users, List<UserDomainId> userDomainIds) {
+        var domainIdsByUserId = userDomainIds.stream()
+                .collect(Collectors.groupingBy(
+                        UserDomainId::userId,
+                        Collectors.mapping(UserDomainId::domainId, Collectors.toList())
+                ));
+
+        return users.stream()
+                .map(user -> toUserResponse(user, domainIdsByUserId.getOrDefault(user.id(), List.of())))
                 .toList();
+    }
+
+    private UserResponse convertToUserResponse(UserRow user) {
+        return convertToUserResponses(List.of(user)).getFirst();
+    }
 
+    private static UserResponse toUserResponse(UserRow user, List<String> domainIds) {
         return new UserResponse(
-                user.getId(),
-                user.getFirstName(),
-                user.getLastName(),
-                user.getGender(),
-                user.getBirthDate(),
-                user.getEmail(),
+                user.id(),
+                user.firstName(),
+                user.lastName(),
+                user.gender(),
+                user.birthDate(),
+                user.email(),
                 domainIds
         );
     }
@@ -0,0 +1,63 @@
+-- Applied only with jpa.ids.storage=binary: the ids of domain, user and user_domain are stored as BINARY(16)
+-- instead of their 36-character text form. Every table is rebuilt with its converted ids,
+-- constraints and indexes are added once the old tables are gone, so that their names are free.
+-- Versions of db/migration skip 5. A database already past version 5 needs spring.flyway.out-of-order=true.
+create table user_domain_binary (
+    domain_id binary(16) not null,
+    user_id binary(16) not null,
+    primary key (user_id, domain_id)
+);
+
+insert into user_domain_binary (user_id, domain_id)
+select uuid_to_bin(user_id), uuid_to_bin(domain_id) from user_domain;
+
+drop table user_domain;
+
+create table domain_binary (
+    id binary(16) not null,
+    description varchar(255),
+    name varchar(255),
+    primary key (id)
+);
+
+insert into domain_binary (id, description, name)
+select uuid_to_bin(id), description, name from domain;
+
+drop table domain;
+
+create table user_binary (
+    birth_date date,
+    gender tinyint not null,
+    is_expert bit not null,
+    id binary(16) not null,
+    first_name varchar(50) not null,
+    last_name varchar(50) not null,
+    email varchar(150) not null,
+    primary key (id)
+);
+
+insert into user_binary (birth_date, gender, is_expert, id, first_name, last_name, email)
+select birth_date, gender, is_expert, uuid_to_bin(id), first_name, last_name, email from user;
+
+drop table user;
+
+alter table user_domain_binary rename to user_domain;
+
+alter table domain_binary rename to domain;
+
+alter table user_binary rename to user;
+
+alter table user
+    add constraint uk_user_email unique (email);
+
+alter table user_domain
+    add constraint fk_user_domain_domain foreign key (domain_id) references domain (id);
+
+alter table user_domain
+    add constraint fk_user_domain_user foreign key (user_id) references user (id);
+
+create index idx_user_domain_domain_user on user_domain (domain_id, user_id);
+
+create index idx_user_expert on user (is_expert, id);
+
+create index idx_domain_name on domain (name);
@@ -0,0 +1,29 @@
+-- The schema as created by Hibernate (ddl-auto: update) before the migrations existed,
+-- without the tables added since then, each of which has its own migration.
+-- Existing databases are baselined at this version and skip it.
+
+create table domain (
+    id varchar(36) not null,
+    description varchar(255),
+    name varchar(255),
+    primary key (id)
+);
+
+create table user (
+    birth_date date,
+    gender tinyint not null,
+    is_expert bit not null,
+    id varchar(36) not null,
+    first_name varchar(50) not null,
+    last_name varchar(50) not null,
+    email varchar(150) not null,
+    primary key (id),
+    constraint uk_user_email unique (email)
+);
+
+create table user_domain (
+    domain_id varchar(36) not null,
+    user_id varchar(36) not null,
+    constraint fk_user_domain_domain foreign key (domain_id) references domain (id),
+    constraint fk_user_domain_user foreign key (user_id) references user (id)
+);
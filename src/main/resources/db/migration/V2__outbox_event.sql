@@ -0,0 +1,15 @@
+-- Keycloak side effects committed with the local change, drained by KeycloakOutboxWorker.
+
+create table outbox_event (
+    attempts integer not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    next_attempt_at datetime(6) not null,
+    aggregate_id varchar(36) not null,
+    last_error varchar(500),
+    status enum ('FAILED','PENDING') not null,
+    type enum ('DELETE_KEYCLOAK_USER') not null,
+    primary key (id)
+);
+
+create index idx_outbox_event_due on outbox_event (status, next_attempt_at);
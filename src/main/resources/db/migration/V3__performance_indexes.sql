@@ -0,0 +1,30 @@
+-- A link is stored once, (user_id, domain_id) becomes the primary key of user_domain.
+-- Concurrent additions of the same link then hit the key instead of both passing a NOT EXISTS check.
+-- Rows without a key cannot be deleted one copy at a time, so the table is rebuilt without its duplicates.
+create table user_domain_deduplicated (
+    domain_id varchar(36) not null,
+    user_id varchar(36) not null,
+    primary key (user_id, domain_id)
+);
+
+insert into user_domain_deduplicated (user_id, domain_id)
+select distinct user_id, domain_id from user_domain;
+
+drop table user_domain;
+
+alter table user_domain_deduplicated rename to user_domain;
+
+alter table user_domain
+    add constraint fk_user_domain_domain foreign key (domain_id) references domain (id);
+
+alter table user_domain
+    add constraint fk_user_domain_user foreign key (user_id) references user (id);
+
+-- Experts in a domain: the range domain_id = ? and user_id > ? is read in user id order,
+-- which serves both the offset and the keyset page queries.
+-- The domain ids of a page of users are covered by the primary key.
+create index idx_user_domain_domain_user on user_domain (domain_id, user_id);
+
+create index idx_user_expert on user (is_expert, id);
+
+create index idx_domain_name on domain (name);
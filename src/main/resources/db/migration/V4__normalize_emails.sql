@@ -0,0 +1,26 @@
+-- Emails are stored trimmed and lower-cased since the service normalizes them on write,
+-- rows stored before that are normalized once here.
+-- Users whose normalized emails would collide (they differ only by case or surrounding whitespace)
+-- cannot all keep the unique email: they are left unchanged and listed in user_email_conflict
+-- for a manual merge, the other rows are normalized.
+
+create table user_email_conflict (
+    user_id varchar(36) not null,
+    email varchar(150) not null,
+    normalized_email varchar(150) not null,
+    primary key (user_id)
+);
+
+insert into user_email_conflict (user_id, email, normalized_email)
+select u.id, u.email, c.normalized_email
+from user u
+join (
+    select lower(trim(email)) as normalized_email
+    from user
+    group by lower(trim(email))
+    having count(*) > 1
+) c on c.normalized_email = lower(trim(u.email));
+
+-- rows already normalized are matched but not written
+update user set email = lower(trim(email))
+where id not in (select user_id from user_email_conflict);
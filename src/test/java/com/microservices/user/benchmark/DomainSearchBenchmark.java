@@ -0,0 +1,113 @@
+package com.microservices.user.benchmark;
+
+import com.microservices.user.dto.response.DomainResponse;
+import com.microservices.user.dto.response.PagingObjectsResponse;
+import com.microservices.user.service.impl.DomainIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Domain picker search served by the in-memory {@link DomainIndex}
+ * compared with the previous repository path: a {@code LIKE '%x%'} page query plus its count query,
+ * as generated for {@code findAllByNameContainsIgnoreCase}, on an in-memory H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DomainSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "java", "spring", "data", "machine", "learning", "cloud", "security", "network",
+            "devops", "mobile", "frontend", "backend", "database", "testing", "design", "analytics"
+    };
+    private static final int PAGE_SIZE = 6;
+
+    @Param({"1000", "10000"})
+    private int domainCount;
+
+    @Param({"ja", "learn", "cloud sec"})
+    private String query;
+
+    private Connection connection;
+    private DomainIndex index;
+
+    @Setup
+    public void setUp() throws SQLException {
+        var random = new Random(42);
+        var domains = new ArrayList<DomainResponse>(domainCount);
+        for (int i = 0; i < domainCount; i++) {
+            var name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            domains.add(new DomainResponse(UUID.randomUUID().toString(), name, "description " + i));
+        }
+        index = new DomainIndex(domains);
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:domain-search-" + domainCount + ";MODE=MySQL");
+        try (var statement = connection.createStatement()) {
+            statement.execute("create table if not exists domain " +
+                              "(id varchar(36) primary key, name varchar(255), description varchar(255))");
+            statement.execute("delete from domain");
+        }
+        try (var insert = connection.prepareStatement("insert into domain values (?, ?, ?)")) {
+            for (var domain : domains) {
+                insert.setString(1, domain.id());
+                insert.setString(2, domain.name());
+                insert.setString(3, domain.description());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<DomainResponse> repositorySearch() throws SQLException {
+        var pattern = "%" + query.toUpperCase() + "%";
+        var content = new ArrayList<DomainResponse>(PAGE_SIZE);
+        try (var select = connection.prepareStatement(
+                "select d.id, d.name, d.description from domain d " +
+                "where upper(d.name) like ? escape '\\' order by d.name limit ?, ?")) {
+            select.setString(1, pattern);
+            select.setInt(2, 0);
+            select.setInt(3, PAGE_SIZE);
+            try (var rows = select.executeQuery()) {
+                while (rows.next())
+                    content.add(new DomainResponse(rows.getString(1), rows.getString(2), rows.getString(3)));
+            }
+        }
+        try (var count = connection.prepareStatement(
+                "select count(d.id) from domain d where upper(d.name) like ? escape '\\'")) {
+            count.setString(1, pattern);
+            try (var rows = count.executeQuery()) {
+                rows.next();
+                rows.getLong(1);
+            }
+        }
+        return content;
+    }
+
+    @Benchmark
+    public PagingObjectsResponse<DomainResponse> catalogSearch() {
+        return index.search(query, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<DomainResponse> catalogSuggest() {
+        return index.suggest(query, PAGE_SIZE);
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.microservices.user.benchmark;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Email lookup latency on a MySQL user table with 1M rows:
+ * the former {@code upper(email) = upper(?)} predicate against an equality on the normalized column.
+ * Run with {@code ./mvnw test -Dbenchmark=true -Dtest=EmailLookupBenchmark} (requires Docker).
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EmailLookupBenchmark {
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 1_000_000);
+    private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 200);
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>(DockerImageName.parse("mysql:8.1"));
+    private static Connection connection;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        MYSQL.start();
+        connection = DriverManager.getConnection(
+                MYSQL.getJdbcUrl() + "?rewriteBatchedStatements=true",
+                MYSQL.getUsername(),
+                MYSQL.getPassword()
+        );
+        try (var statement = connection.createStatement()) {
+            // same shape as the table generated for the User entity
+            statement.execute("""
+                    CREATE TABLE user (
+                        id VARCHAR(36) NOT NULL PRIMARY KEY,
+                        is_expert BIT NOT NULL,
+                        first_name VARCHAR(50) NOT NULL,
+                        last_name VARCHAR(50) NOT NULL,
+                        gender TINYINT NOT NULL,
+                        birth_date DATE,
+                        email VARCHAR(150) NOT NULL UNIQUE
+                    )""");
+        }
+
+        connection.setAutoCommit(false);
+        try (var insert = connection.prepareStatement(
+                "INSERT INTO user (id, is_expert, first_name, last_name, gender, email) VALUES (?, 0, 'f', 'l', 0, ?)")) {
+            for (int i = 0; i < USERS; i++) {
+                insert.setString(1, String.format("%036d", i));
+                insert.setString(2, email(i));
+                insert.addBatch();
+                if ((i + 1) % INSERT_BATCH_SIZE == 0) insert.executeBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        try (var statement = connection.createStatement()) {
+            statement.execute("ANALYZE TABLE user");
+        }
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        if (connection != null) connection.close();
+        MYSQL.stop();
+    }
+
+    @Test
+    void lookupLatency() throws SQLException {
+        var ignoreCase = "SELECT id FROM user WHERE UPPER(email) = UPPER(?)";
+        var normalized = "SELECT id FROM user WHERE email = ?";
+
+        explain(ignoreCase);
+        explain(normalized);
+        // warm up the buffer pool and the statement cache
+        measure(normalized, LOOKUPS);
+        measure(ignoreCase, 3);
+
+        report("upper(email) = upper(?)", measure(ignoreCase, Math.min(LOOKUPS, 20)));
+        report("email = ?", measure(normalized, LOOKUPS));
+    }
+
+    private static long[] measure(String sql, int lookups) throws SQLException {
+        var random = new Random(42);
+        var latencies = new long[lookups];
+        try (var select = connection.prepareStatement(sql)) {
+            for (int i = 0; i < lookups; i++) {
+                // callers pass any case: the old query folds it in SQL, the service normalizes it first
+                var email = email(random.nextInt(USERS));
+                select.setString(1, sql.contains("UPPER") ? email.toUpperCase() : email);
+                var start = System.nanoTime();
+                try (var rows = select.executeQuery()) {
+                    rows.next();
+                }
+                latencies[i] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static void explain(String sql) throws SQLException {
+        try (var explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            explain.setString(1, email(0));
+            try (var rows = explain.executeQuery()) {
+                rows.next();
+                System.out.printf("%s -> type=%s key=%s rows=%s%n",
+                        sql, rows.getString("type"), rows.getString("key"), rows.getString("rows"));
+            }
+        }
+    }
+
+    private static void report(String predicate, long[] latencies) {
+        System.out.printf("users=%d %s: p50=%.3fms p99=%.3fms (%d lookups)%n",
+                USERS,
+                predicate,
+                latencies[latencies.length / 2] / 1_000_000.0,
+                latencies[(int) Math.min(latencies.length - 1, Math.ceil(latencies.length * 0.99) - 1)] / 1_000_000.0,
+                latencies.length);
+    }
+
+    private static String email(int i) {
+        return "user" + i + "@example.com";
+    }
+
+}
@@ -0,0 +1,314 @@
+package com.microservices.user.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the whole application on an in-memory H2 database against a local Keycloak stub
+ * (token, users, logout and delete endpoints, with a configurable latency),
+ * drives a mix of auth, user and domain traffic over HTTP and reports,
+ * per endpoint, throughput and p50/p95/p99 latency, also written to target/load-test-result.json.
+ * The Prometheus scrape taken at the end of the run is saved to target/load-test-metrics.prom.
+ * Needs neither Docker nor network access, run with
+ * {@code ./mvnw -o test -Dbenchmark=true -Dtest=EndToEndLoadTest}
+ * [-Dload.duration=PT30S -Dload.concurrency=64 -Dload.users=200 -Dload.domains=50 -Dload.keycloak-latency=PT0.02S].
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+// tests get a simple meter registry by default, the run is meant to expose the Prometheus one
+@AutoConfigureObservability
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:load;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.cloud.discovery.enabled=false",
+                "eureka.client.enabled=false",
+                "keycloak.realm=load",
+                "keycloak.client-id=load",
+                "keycloak.client-secret=secret",
+                "logging.level.root=warn"
+        }
+)
+class EndToEndLoadTest {
+
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 64);
+    private static final int USERS = Integer.getInteger("load.users", 200);
+    private static final int DOMAINS = Integer.getInteger("load.domains", 50);
+    private static final Duration KEYCLOAK_LATENCY =
+            Duration.parse(System.getProperty("load.keycloak-latency", "PT0.02S"));
+    private static final Path RESULT_FILE = Path.of("target", "load-test-result.json");
+    private static final Path METRICS_FILE = Path.of("target", "load-test-metrics.prom");
+
+    private static final String[] WORDS = {
+            "java", "spring", "data", "machine", "learning", "cloud", "security", "network",
+            "devops", "mobile", "frontend", "backend", "database", "testing", "design", "analytics"
+    };
+    private static final String TOKEN_RESPONSE = """
+            {"access_token":"%s","expires_in":300,"refresh_expires_in":1800,"refresh_token":"%s",\
+            "token_type":"Bearer","not-before-policy":0,"session_state":"%s","scope":"profile email"}""";
+
+    private static HttpServer keycloak;
+    private static final AtomicInteger keycloakRequests = new AtomicInteger();
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    @DynamicPropertySource
+    static void keycloakStub(DynamicPropertyRegistry registry) throws IOException {
+        keycloak = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        keycloak.createContext("/", EndToEndLoadTest::handleKeycloak);
+        keycloak.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        keycloak.start();
+        registry.add("keycloak.server-url", () -> "http://127.0.0.1:" + keycloak.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopKeycloak() {
+        if (keycloak != null) keycloak.stop(0);
+    }
+
+    @Test
+    void mixedTraffic() throws Exception {
+        var domainIds = new ArrayList<String>(DOMAINS);
+        for (int i = 0; i < DOMAINS; i++) {
+            var name = WORDS[i % WORDS.length] + " " + WORDS[(i * 7 + 3) % WORDS.length] + " " + i;
+            domainIds.add(unquote(send("setup", "POST", "/api/v1/user/domain",
+                    "{\"name\":\"" + name + "\",\"description\":\"load test domain\"}")));
+        }
+        var users = new ArrayList<TestUser>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            var email = "load-" + i + "@example.com";
+            var id = unquote(send("setup", "POST", "/api/v1/user/auth/register?isExpert=true",
+                    "{\"username\":\"load-" + i + "\",\"password\":\"secret\",\"firstName\":\"Load\"," +
+                    "\"lastName\":\"Test " + i + "\",\"email\":\"" + email + "\",\"gender\":\"FEMALE\"," +
+                    "\"birthdate\":\"1990-01-01\"}"));
+            var userDomains = new ArrayList<String>();
+            for (int j = 0; j < 3; j++) userDomains.add("\"" + domainIds.get((i + j * 11) % DOMAINS) + "\"");
+            send("setup", "PATCH", "/api/v1/user/" + id + "/domain",
+                    "{\"operator\":\"ADD\",\"domainIds\":[" + String.join(",", userDomains) + "]}");
+            users.add(new TestUser(id, email));
+        }
+        stats.clear();
+
+        var deadline = System.nanoTime() + DURATION.toNanos();
+        var start = System.nanoTime();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                executor.execute(() -> {
+                    while (System.nanoTime() < deadline) runOne(users, domainIds);
+                });
+            }
+        }
+        var seconds = (System.nanoTime() - start) / 1e9;
+
+        report(seconds);
+        // server side view of the same run: Keycloak timers, Hikari, Hibernate and cache statistics
+        Files.writeString(METRICS_FILE, send("metrics", "GET", "/actuator/prometheus", null));
+        assertTrue(stats.values().stream().mapToInt(Stats::count).sum() > 0);
+    }
+
+    private void runOne(List<TestUser> users, List<String> domainIds) {
+        var random = ThreadLocalRandom.current();
+        var user = users.get(random.nextInt(users.size()));
+        var domainId = domainIds.get(random.nextInt(domainIds.size()));
+        var word = WORDS[random.nextInt(WORDS.length)];
+        var roll = random.nextInt(100);
+        try {
+            if (roll < 30) send("GET /user/{userId}", "GET", "/api/v1/user/" + user.id(), null);
+            else if (roll < 40) send("GET /user/{email}/email", "GET",
+                    "/api/v1/user/" + encode(user.email()) + "/email", null);
+            else if (roll < 50) send("GET /user/{domainId}/experts", "GET",
+                    "/api/v1/user/" + domainId + "/experts?pageSize=20", null);
+            else if (roll < 62) send("GET /user/domain", "GET", "/api/v1/user/domain?name=" + word.substring(0, 3), null);
+            else if (roll < 70) send("GET /user/domain/suggest", "GET",
+                    "/api/v1/user/domain/suggest?prefix=" + word.substring(0, 2), null);
+            else if (roll < 82) send("POST /auth/login", "POST", "/api/v1/user/auth/login",
+                    "{\"username\":\"load\",\"password\":\"secret\"}");
+            else if (roll < 90) send("POST /auth/refresh", "POST",
+                    "/api/v1/user/auth/refresh?refreshToken=" + UUID.randomUUID(), null);
+            else if (roll < 96) send("PATCH /user/{userId}", "PATCH", "/api/v1/user/" + user.id(),
+                    "{\"lastName\":\"Updated " + random.nextInt(1000) + "\"}");
+            else send("POST /auth/{userId}/logout", "POST", "/api/v1/user/auth/" + user.id() + "/logout", null);
+        } catch (IOException | RuntimeException e) {
+            // counted as an error of the endpoint by send
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String send(String endpoint, String method, String path, String json)
+            throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, json == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        var endpointStats = stats.computeIfAbsent(endpoint, Stats::new);
+        var start = System.nanoTime();
+        try {
+            var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            var ok = response.statusCode() < 400;
+            endpointStats.record(System.nanoTime() - start, ok);
+            if (!ok && endpoint.equals("setup"))
+                throw new IllegalStateException(method + " " + path + " -> " + response.statusCode() + " " + response.body());
+            return response.body();
+        } catch (IOException e) {
+            endpointStats.record(System.nanoTime() - start, false);
+            throw e;
+        }
+    }
+
+    private void report(double seconds) throws IOException {
+        System.out.printf("duration=%.1fs concurrency=%d users=%d domains=%d keycloakLatency=%dms keycloakRequests=%d%n",
+                seconds, CONCURRENCY, USERS, DOMAINS, KEYCLOAK_LATENCY.toMillis(), keycloakRequests.get());
+        System.out.printf("%-30s %8s %7s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms");
+
+        var json = new ArrayList<String>();
+        stats.values().stream()
+                .sorted(Comparator.comparing(Stats::endpoint))
+                .forEach(endpointStats -> {
+                    var latencies = endpointStats.sortedLatencies();
+                    var throughput = latencies.length / seconds;
+                    System.out.printf("%-30s %8d %7d %9.1f %9.2f %9.2f %9.2f%n",
+                            endpointStats.endpoint(), latencies.length, endpointStats.errors(), throughput,
+                            percentile(latencies, 50), percentile(latencies, 95), percentile(latencies, 99));
+                    json.add(String.format(Locale.ROOT,
+                            "{\"endpoint\":\"%s\",\"requests\":%d,\"errors\":%d,\"throughput\":%.2f," +
+                            "\"p50\":%.3f,\"p95\":%.3f,\"p99\":%.3f}",
+                            endpointStats.endpoint(), latencies.length, endpointStats.errors(), throughput,
+                            percentile(latencies, 50), percentile(latencies, 95), percentile(latencies, 99)));
+                });
+
+        Files.createDirectories(RESULT_FILE.getParent());
+        Files.writeString(RESULT_FILE, String.format(Locale.ROOT,
+                "{\"durationSeconds\":%.1f,\"concurrency\":%d,\"keycloakLatencyMillis\":%d,\"endpoints\":[%s]}%n",
+                seconds, CONCURRENCY, KEYCLOAK_LATENCY.toMillis(), String.join(",", json)));
+    }
+
+    /**
+     * Nearest-rank percentile in milliseconds.
+     */
+    private static double percentile(long[] sortedLatencies, int percentile) {
+        if (sortedLatencies.length == 0) return 0;
+        var rank = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(rank, 0)] / 1_000_000.0;
+    }
+
+    private static void handleKeycloak(HttpExchange exchange) throws IOException {
+        keycloakRequests.incrementAndGet();
+        try {
+            Thread.sleep(KEYCLOAK_LATENCY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.getRequestBody().readAllBytes();
+
+        var path = exchange.getRequestURI().getPath();
+        var method = exchange.getRequestMethod();
+        if (path.endsWith("/protocol/openid-connect/token")) {
+            var body = TOKEN_RESPONSE.formatted(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID())
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } else if (path.endsWith("/logout")) {
+            exchange.sendResponseHeaders(204, -1);
+        } else if (path.endsWith("/users") && method.equals("POST")) {
+            exchange.getResponseHeaders().add("Location",
+                    "http://127.0.0.1" + path + "/" + UUID.randomUUID());
+            exchange.sendResponseHeaders(201, -1);
+        } else if (path.contains("/users/") && method.equals("DELETE")) {
+            exchange.sendResponseHeaders(204, -1);
+        } else {
+            exchange.sendResponseHeaders(404, -1);
+        }
+        exchange.close();
+    }
+
+    private static String unquote(String body) {
+        return body.startsWith("\"") ? body.substring(1, body.length() - 1) : body;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private record TestUser(String id, String email) {
+    }
+
+    private static final class Stats {
+
+        private final String endpoint;
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        Stats(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        synchronized void record(long latencyNanos, boolean ok) {
+            if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = latencyNanos;
+            if (!ok) errors++;
+        }
+
+        String endpoint() {
+            return endpoint;
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized int errors() {
+            return errors;
+        }
+
+        synchronized long[] sortedLatencies() {
+            var sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+    }
+
+}
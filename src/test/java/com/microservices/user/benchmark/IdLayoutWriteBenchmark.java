@@ -0,0 +1,131 @@
+package com.microservices.user.benchmark;
+
+import com.microservices.user.entity.id.IdStorage;
+import com.microservices.user.entity.id.TimeOrderedUuidGenerator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Insert rate and on-disk size of the domain and user_domain tables for three id layouts:
+ * random UUID strings (the former Domain ids), time-ordered UUID strings (the current ones)
+ * and time-ordered UUIDs stored as BINARY(16).
+ * Run with {@code ./mvnw test -Dbenchmark=true -Dtest=IdLayoutWriteBenchmark}, which starts MySQL in Docker,
+ * or against an existing MySQL database with {@code -Dbenchmark.url=jdbc:mysql://...}
+ * and {@code -Dbenchmark.username} / {@code -Dbenchmark.password}. Its layout tables are dropped and recreated.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IdLayoutWriteBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 500_000);
+    private static final int BATCH_SIZE = 1_000;
+
+    private static final String URL = System.getProperty("benchmark.url");
+
+    private static MySQLContainer<?> mysql;
+    private static Connection connection;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        if (URL != null) {
+            connection = DriverManager.getConnection(
+                    URL + (URL.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true",
+                    System.getProperty("benchmark.username"),
+                    System.getProperty("benchmark.password")
+            );
+        } else {
+            assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker or -Dbenchmark.url is required");
+            mysql = new MySQLContainer<>(DockerImageName.parse("mysql:8.1"));
+            mysql.start();
+            connection = DriverManager.getConnection(
+                    mysql.getJdbcUrl() + "?rewriteBatchedStatements=true",
+                    mysql.getUsername(),
+                    mysql.getPassword()
+            );
+        }
+        try (var statement = connection.createStatement()) {
+            statement.execute("SET SESSION information_schema_stats_expiry = 0");
+        }
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        if (connection != null) connection.close();
+        if (mysql != null) mysql.stop();
+    }
+
+    @Test
+    void writeThroughputAndIndexSize() throws SQLException {
+        run("random_varchar", "VARCHAR(36)", () -> UUID.randomUUID().toString());
+        run("ordered_varchar", "VARCHAR(36)", () -> TimeOrderedUuidGenerator.next().toString());
+        run("ordered_binary", "BINARY(16)", () -> IdStorage.toBytes(TimeOrderedUuidGenerator.next().toString()));
+    }
+
+    private static void run(String layout, String idType, Supplier<Object> ids) throws SQLException {
+        var domainTable = layout + "_domain";
+        var linkTable = layout + "_user_domain";
+        try (var statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + linkTable + ", " + domainTable);
+            statement.execute("CREATE TABLE " + domainTable + " (id " + idType + " NOT NULL PRIMARY KEY, " +
+                              "name VARCHAR(255), description VARCHAR(255))");
+            statement.execute("CREATE TABLE " + linkTable + " (user_id " + idType + " NOT NULL, " +
+                              "domain_id " + idType + " NOT NULL, " +
+                              "FOREIGN KEY (domain_id) REFERENCES " + domainTable + " (id))");
+        }
+
+        connection.setAutoCommit(false);
+        var start = System.nanoTime();
+        try (var domain = connection.prepareStatement("INSERT INTO " + domainTable + " VALUES (?, ?, ?)");
+             var link = connection.prepareStatement("INSERT INTO " + linkTable + " VALUES (?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                var id = ids.get();
+                domain.setObject(1, id);
+                domain.setString(2, "domain " + i);
+                domain.setString(3, "description " + i);
+                domain.addBatch();
+                link.setObject(1, ids.get());
+                link.setObject(2, id);
+                link.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    domain.executeBatch();
+                    link.executeBatch();
+                    connection.commit();
+                }
+            }
+            domain.executeBatch();
+            link.executeBatch();
+            connection.commit();
+        }
+        var seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        connection.setAutoCommit(true);
+
+        System.out.printf("%-16s rows=%d insert rate=%.0f rows/s %s %s%n",
+                layout, ROWS, ROWS / seconds, size(domainTable), size(linkTable));
+    }
+
+    private static String size(String table) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute("ANALYZE TABLE " + table);
+            try (var rows = statement.executeQuery(
+                    "SELECT data_length, index_length FROM information_schema.tables " +
+                    "WHERE table_schema = DATABASE() AND table_name = '" + table + "'")) {
+                rows.next();
+                return String.format("%s: data=%.1fMB index=%.1fMB",
+                        table, rows.getLong(1) / 1048576.0, rows.getLong(2) / 1048576.0);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.microservices.user.benchmark;
+
+import com.microservices.user.security.AuthenticatedCaller;
+import com.microservices.user.security.JwtVerifier;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of verifying a Keycloak-like RS256 access token with a cached key set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerifierBenchmark {
+
+    private static final String ISSUER = "http://localhost:8180/realms/bench";
+    private static final String CLIENT_ID = "bench-client";
+
+    private JwtVerifier verifier;
+    private String token;
+
+    @Setup
+    public void setUp() throws JOSEException {
+        var key = new RSAKeyGenerator(2048).keyID("bench-key").generate();
+        var claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject(UUID.randomUUID().toString())
+                .claim("typ", "Bearer")
+                .claim("azp", CLIENT_ID)
+                .claim("preferred_username", "bench")
+                .claim("email", "bench@example.com")
+                .expirationTime(Date.from(Instant.now().plus(1, ChronoUnit.DAYS)))
+                .build();
+        var jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+
+        token = jwt.serialize();
+        verifier = new JwtVerifier(new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK())), ISSUER, Set.of(CLIENT_ID));
+    }
+
+    @Benchmark
+    public AuthenticatedCaller verify() {
+        return verifier.verify(token);
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.microservices.user.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.user.constant.Gender;
+import com.microservices.user.dto.response.AuthenticatedResponse;
+import com.microservices.user.dto.response.PagingObjectsResponse;
+import com.microservices.user.dto.response.UserResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the most returned responses,
+ * with an object mapper configured like the one Spring Boot gives the MVC message converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private ObjectMapper objectMapper;
+    private UserResponse user;
+    private PagingObjectsResponse<UserResponse> userPage;
+    private AuthenticatedResponse authenticated;
+    private byte[] authenticatedJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        var random = new Random(42);
+        var users = new ArrayList<UserResponse>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) users.add(user(random, i));
+        user = users.getFirst();
+        userPage = new PagingObjectsResponse<>(500, 10_000L, 3, PAGE_SIZE, PAGE_SIZE, false, false, users);
+
+        // sizes of a typical Keycloak access and refresh token response
+        authenticated = new AuthenticatedResponse(
+                "x".repeat(1_400), 300L, 1_800L, "Bearer", 0L, UUID.randomUUID().toString(), "profile email"
+        );
+        authenticatedJson = objectMapper.writeValueAsBytes(authenticated);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] serializeUserPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userPage);
+    }
+
+    @Benchmark
+    public byte[] serializeAuthenticated() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(authenticated);
+    }
+
+    /**
+     * The token response read from Keycloak on every login and refresh.
+     */
+    @Benchmark
+    public AuthenticatedResponse deserializeAuthenticated() throws IOException {
+        return objectMapper.readValue(authenticatedJson, AuthenticatedResponse.class);
+    }
+
+    private static UserResponse user(Random random, int i) {
+        var domainIds = new ArrayList<String>(5);
+        for (int j = 0; j < 5; j++) domainIds.add(new UUID(random.nextLong(), random.nextLong()).toString());
+        return new UserResponse(
+                new UUID(random.nextLong(), random.nextLong()).toString(),
+                "first-" + i,
+                "last-" + i,
+                Gender.values()[random.nextInt(Gender.values().length)],
+                LocalDate.of(1970 + random.nextInt(40), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                "user-" + i + "@example.com",
+                List.copyOf(domainIds)
+        );
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.microservices.user.benchmark;
+
+import org.h2.Driver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.jar.JarFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts the packaged application in a new JVM, on an in-memory H2 database,
+ * and measures the time from launching the JVM to the first served request ({@code /actuator/health}).
+ * Each variant is started several times: the plain jar, with a class-data-sharing archive from a training run,
+ * and, when the jar was built with {@code -Paot}, with the AOT-generated bean definitions, with and without the archive.
+ * The medians are printed and written to target/startup-result.json, run with
+ * {@code ./mvnw [-Paot] package -DskipTests && ./mvnw -o test -Dbenchmark=true -Dtest=StartupBenchmark}
+ * [-Dstartup.runs=5 -Dstartup.jar=target/user-service.jar].
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StartupBenchmark {
+
+    private static final int RUNS = Integer.getInteger("startup.runs", 5);
+    private static final Path JAR = Path.of(System.getProperty("startup.jar", "target/user-service.jar"));
+    private static final Path WORK_DIR = Path.of("target", "startup");
+    private static final Path RESULT_FILE = Path.of("target", "startup-result.json");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final String MAIN_CLASS = "com.microservices.user.UserServiceApplication";
+    private static final List<String> PROPERTIES = List.of(
+            "-Dspring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;NON_KEYWORDS=USER",
+            "-Dspring.datasource.username=sa",
+            "-Dspring.datasource.password=",
+            "-Dspring.cloud.discovery.enabled=false",
+            "-Deureka.client.enabled=false",
+            // the AOT-processed context keeps the Eureka client, it must not call out
+            "-Deureka.client.register-with-eureka=false",
+            "-Deureka.client.fetch-registry=false",
+            "-Dkeycloak.server-url=http://127.0.0.1:1",
+            "-Dkeycloak.realm=startup",
+            "-Dkeycloak.client-id=startup",
+            "-Dkeycloak.client-secret=secret",
+            "-Dlogging.level.root=warn"
+    );
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    @Test
+    void timeToFirstRequest() throws Exception {
+        assertTrue(Files.exists(JAR), JAR + " not found, package the application first");
+        var classpath = extract() + File.pathSeparator + Path.of(Driver.class.getProtectionDomain()
+                .getCodeSource().getLocation().toURI());
+        var archive = WORK_DIR.resolve("app.jsa");
+        var aot = isAotProcessed();
+
+        var variants = new LinkedHashMap<String, List<String>>();
+        variants.put("default", List.of());
+        variants.put("cds", List.of("-XX:SharedArchiveFile=" + archive));
+        if (aot) {
+            variants.put("aot", List.of("-Dspring.aot.enabled=true"));
+            variants.put("aot+cds", List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archive));
+        }
+
+        // the archive must be created by the same kind of run it is used with
+        Files.deleteIfExists(archive);
+        var training = new ArrayList<>(List.of("-XX:ArchiveClassesAtExit=" + archive, "-Dspring.context.exit=onRefresh"));
+        if (aot) training.add("-Dspring.aot.enabled=true");
+        assertEquals(0, launch(classpath, training, "training").waitFor());
+
+        System.out.printf("jar=%s aot=%s runs=%d%n", JAR, aot, RUNS);
+        System.out.printf("%-10s %12s %12s %12s%n", "variant", "median ms", "min ms", "max ms");
+        var json = new ArrayList<String>();
+        for (var variant : variants.entrySet()) {
+            var millis = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) millis[i] = timeToFirstRequest(classpath, variant.getValue(), variant.getKey() + "-" + i);
+            Arrays.sort(millis);
+            var median = millis[RUNS / 2];
+            System.out.printf("%-10s %12d %12d %12d%n", variant.getKey(), median, millis[0], millis[RUNS - 1]);
+            json.add(String.format(Locale.ROOT, "{\"variant\":\"%s\",\"medianMs\":%d,\"minMs\":%d,\"maxMs\":%d}",
+                    variant.getKey(), median, millis[0], millis[RUNS - 1]));
+        }
+        Files.writeString(RESULT_FILE, String.format(Locale.ROOT,
+                "{\"aot\":%s,\"runs\":%d,\"variants\":[%s]}%n", aot, RUNS, String.join(",", json)));
+    }
+
+    private long timeToFirstRequest(String classpath, List<String> options, String name) throws Exception {
+        int port;
+        try (var socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        var jvmOptions = new ArrayList<>(options);
+        jvmOptions.add("-Dserver.port=" + port);
+        var health = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/actuator/health")).build();
+
+        var start = System.nanoTime();
+        var process = launch(classpath, jvmOptions, name);
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                assertTrue(process.isAlive(), name + " exited, see " + WORK_DIR.resolve(name + ".log"));
+                try {
+                    // any response counts, a DOWN health check is still a served request
+                    client.send(health, HttpResponse.BodyHandlers.discarding());
+                    return (System.nanoTime() - start) / 1_000_000;
+                } catch (IOException e) {
+                    Thread.sleep(10);
+                }
+            }
+            throw new IllegalStateException(name + " did not serve a request within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static Process launch(String classpath, List<String> options, String name) throws IOException {
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(options);
+        command.addAll(PROPERTIES);
+        command.addAll(List.of("-cp", classpath, MAIN_CLASS));
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(WORK_DIR.resolve(name + ".log").toFile())
+                .start();
+    }
+
+    /**
+     * Unpacks the jar into a plain jar with its libraries next to it,
+     * class-data sharing only works with classes loaded from plain jars.
+     */
+    private static String extract() throws Exception {
+        var java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        var extraction = new ProcessBuilder(java, "-Djarmode=tools", "-jar", JAR.toString(),
+                "extract", "--destination", WORK_DIR.toString(), "--force")
+                .inheritIO()
+                .start();
+        assertEquals(0, extraction.waitFor());
+        return WORK_DIR.resolve(JAR.getFileName()).toString();
+    }
+
+    private static boolean isAotProcessed() throws IOException {
+        try (var jar = new JarFile(JAR.toFile())) {
+            var initializer = "BOOT-INF/classes/" + MAIN_CLASS.replace('.', '/') + "__ApplicationContextInitializer.class";
+            return jar.getEntry(initializer) != null;
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.microservices.user.benchmark;
+
+import com.microservices.user.config.KeycloakClientConfiguration;
+import com.microservices.user.config.KeycloakConfigurationProperties;
+import com.microservices.user.config.KeycloakMetricsInterceptor;
+import com.microservices.user.dto.request.UserLoginRequest;
+import com.microservices.user.service.impl.KeycloakService;
+import com.microservices.user.service.impl.KeycloakTokenManager;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compares login throughput of a Tomcat-sized platform thread pool with virtual threads
+ * while Keycloak answers slowly.
+ * Run with {@code ./mvnw test -Dbenchmark=true -Dtest=VirtualThreadLoginBenchmark}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadLoginBenchmark {
+
+    private static final int CONCURRENT_LOGINS = Integer.getInteger("benchmark.logins", 2_000);
+    private static final int PLATFORM_THREADS = 200;
+    private static final long KEYCLOAK_LATENCY_MILLIS = Long.getLong("benchmark.latency", 500);
+
+    private static HttpServer keycloak;
+    private static KeycloakService keycloakService;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        // the JDK server closes keep-alive connections beyond this limit, which the client pool would reuse
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(CONCURRENT_LOGINS));
+        keycloak = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        keycloak.createContext("/realms/bench/protocol/openid-connect/token", exchange -> {
+            try {
+                Thread.sleep(KEYCLOAK_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            var body = "{\"access_token\":\"a\",\"expires_in\":300,\"token_type\":\"Bearer\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        keycloak.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        keycloak.start();
+
+        var properties = new KeycloakConfigurationProperties();
+        properties.setServerUrl("http://127.0.0.1:" + keycloak.getAddress().getPort());
+        properties.setRealm("bench");
+        properties.setClientId("client");
+        properties.setClientSecret("secret");
+        properties.getTransport().setMaxConnections(CONCURRENT_LOGINS);
+        properties.getTransport().setMaxConnectionsPerRoute(CONCURRENT_LOGINS);
+        // measure the threading model, not the protection against a slow Keycloak
+        properties.getResilience().getAuth().setMaxConcurrentCalls(CONCURRENT_LOGINS);
+        properties.getResilience().getConcurrencyLimit().setEnabled(false);
+        properties.getResilience().getCircuitBreaker().setSlowCallRateThreshold(100);
+
+        var environment = new MockEnvironment();
+        var clientConfiguration = new KeycloakClientConfiguration();
+        var requestFactory = clientConfiguration.keycloakRequestFactory(
+                properties,
+                new StaticListableBeanFactory(Map.of(
+                        "keycloakConnectionManager", clientConfiguration.keycloakConnectionManager(properties)
+                )).getBeanProvider(PoolingHttpClientConnectionManager.class),
+                new KeycloakMetricsInterceptor(new SimpleMeterRegistry()),
+                clientConfiguration.keycloakResilienceInterceptor(properties),
+                environment
+        );
+        var tokenManager = new KeycloakTokenManager(properties, requestFactory, environment);
+        keycloakService = new KeycloakService(
+                properties,
+                null,
+                tokenManager,
+                requestFactory,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                environment
+        );
+    }
+
+    @AfterAll
+    static void tearDown() {
+        keycloak.stop(0);
+    }
+
+    @Test
+    void loginThroughput() throws Exception {
+        // warm up connections and JIT before measuring
+        run(Executors.newVirtualThreadPerTaskExecutor(), CONCURRENT_LOGINS);
+
+        var platform = run(Executors.newFixedThreadPool(PLATFORM_THREADS), CONCURRENT_LOGINS);
+        var virtual = run(Executors.newVirtualThreadPerTaskExecutor(), CONCURRENT_LOGINS);
+
+        System.out.printf("logins=%d keycloakLatency=%dms%n", CONCURRENT_LOGINS, KEYCLOAK_LATENCY_MILLIS);
+        System.out.printf("platform threads (%d): %.0f logins/s%n", PLATFORM_THREADS, platform);
+        System.out.printf("virtual threads: %.0f logins/s%n", virtual);
+    }
+
+    private static double run(ExecutorService executor, int logins) throws Exception {
+        var request = new UserLoginRequest("user", "password");
+        var start = System.nanoTime();
+        try (executor) {
+            var results = new ArrayList<Future<?>>(logins);
+            for (int i = 0; i < logins; i++)
+                results.add(executor.submit(() -> keycloakService.login(request)));
+            for (var result : results) result.get();
+        }
+        return logins / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+}
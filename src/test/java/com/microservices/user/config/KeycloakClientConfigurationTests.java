@@ -0,0 +1,36 @@
+package com.microservices.user.config;
+
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeycloakClientConfigurationTests {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class))
+            .withUserConfiguration(KeycloakClientConfiguration.class, KeycloakConfigurationProperties.class);
+
+    @Test
+    void http11ClientUsesAMeteredPool() {
+        contextRunner.run(context -> {
+            assertThat(context).hasSingleBean(PoolingHttpClientConnectionManager.class);
+            assertThat(context).hasBean("keycloakConnectionPoolMetrics");
+            assertThat(context).hasBean(KeycloakClientConfiguration.REQUEST_FACTORY);
+        });
+    }
+
+    @Test
+    void http2ClientHasNoPool() {
+        contextRunner.withPropertyValues("keycloak.transport.http2=true").run(context -> {
+            assertThat(context).doesNotHaveBean(PoolingHttpClientConnectionManager.class);
+            assertThat(context).doesNotHaveBean("keycloakConnectionPoolMetrics");
+            assertThat(context).hasSingleBean(ClientHttpRequestFactory.class);
+        });
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.microservices.user.config;
+
+import com.microservices.user.exception.KeycloakUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeycloakMetricsInterceptorTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private HttpServer server;
+    private KeycloakResilienceInterceptor resilience;
+    private RestClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            var status = switch (exchange.getRequestMethod()) {
+                case "DELETE" -> 404;
+                case "POST" -> exchange.getRequestURI().getPath().endsWith("/users") ? 201 : 200;
+                default -> 204;
+            };
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+
+        resilience = new KeycloakResilienceInterceptor(new KeycloakConfigurationProperties.Resilience());
+        client = RestClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .requestFactory(new InterceptingClientHttpRequestFactory(
+                        new JdkClientHttpRequestFactory(),
+                        List.of(new KeycloakMetricsInterceptor(registry), resilience)
+                ))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void requestsAreTimedByOperationAndStatus() {
+        client.post().uri("/realms/test/protocol/openid-connect/token").retrieve().toBodilessEntity();
+        client.post().uri("/realms/test/protocol/openid-connect/token").retrieve().toBodilessEntity();
+        client.post().uri("/admin/realms/test/users").retrieve().toBodilessEntity();
+        assertThrows(HttpClientErrorException.NotFound.class,
+                () -> client.delete().uri("/admin/realms/test/users/42").retrieve().toBodilessEntity());
+        resilience.getCircuitBreaker(KeycloakResilienceInterceptor.ADMIN).transitionToForcedOpenState();
+        assertThrows(KeycloakUnavailableException.class,
+                () -> client.post().uri("/admin/realms/test/users/42/logout").retrieve().toBodilessEntity());
+
+        assertEquals(2, count("token", "200"));
+        assertEquals(1, count("register", "201"));
+        assertEquals(1, count("delete", "404"));
+        assertEquals(1, count("logout", "REJECTED"));
+    }
+
+    private long count(String operation, String status) {
+        return registry.get(KeycloakMetricsInterceptor.METRIC_NAME)
+                .tag("operation", operation)
+                .tag("status", status)
+                .timer()
+                .count();
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.microservices.user.config;
+
+import com.microservices.user.exception.KeycloakUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the interceptor against a local Keycloak stub whose status and latency are set per test.
+ */
+class KeycloakResilienceInterceptorTests {
+
+    private static final String TOKEN_PATH = "/realms/test/protocol/openid-connect/token";
+    private static final String ADMIN_PATH = "/admin/realms/test/users";
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile long latencyMillis = 0;
+
+    private HttpServer server;
+    private KeycloakConfigurationProperties.Resilience properties;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        properties = new KeycloakConfigurationProperties.Resilience();
+        properties.getCircuitBreaker().setSlidingWindowSize(4);
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void serverErrorsOpenTheCircuit() {
+        var interceptor = new KeycloakResilienceInterceptor(properties);
+        var client = client(interceptor);
+        status = 503;
+
+        for (int i = 0; i < 4; i++)
+            assertThrows(HttpServerErrorException.class, () -> call(client, TOKEN_PATH));
+        assertThrows(KeycloakUnavailableException.class, () -> call(client, TOKEN_PATH));
+
+        assertEquals(4, requests.get());
+        assertEquals(CircuitBreaker.State.OPEN, interceptor.getCircuitBreaker(KeycloakResilienceInterceptor.AUTH).getState());
+        // admin calls have their own circuit
+        status = 204;
+        call(client, ADMIN_PATH);
+    }
+
+    @Test
+    void clientErrorsKeepTheCircuitClosed() {
+        var interceptor = new KeycloakResilienceInterceptor(properties);
+        var client = client(interceptor);
+        status = 401;
+
+        for (int i = 0; i < 10; i++)
+            assertThrows(HttpClientErrorException.class, () -> call(client, TOKEN_PATH));
+
+        assertEquals(10, requests.get());
+        assertEquals(CircuitBreaker.State.CLOSED, interceptor.getCircuitBreaker(KeycloakResilienceInterceptor.AUTH).getState());
+    }
+
+    @Test
+    void slowResponsesShrinkTheConcurrencyLimit() {
+        properties.getCircuitBreaker().setSlowCallRateThreshold(100);
+        properties.getCircuitBreaker().setSlowCallDuration(Duration.ofSeconds(10));
+        properties.getConcurrencyLimit().setInitialLimit(10);
+        properties.getConcurrencyLimit().setMinLimit(2);
+        properties.getConcurrencyLimit().setLatencyThreshold(Duration.ofMillis(20));
+        var interceptor = new KeycloakResilienceInterceptor(properties);
+        var client = client(interceptor);
+        var limiter = interceptor.getLimiter(KeycloakResilienceInterceptor.AUTH);
+
+        latencyMillis = 50;
+        for (int i = 0; i < 4; i++) call(client, TOKEN_PATH);
+        assertEquals((int) (10 * Math.pow(0.9, 4)), limiter.getLimit());
+
+        for (int i = 0; i < 20; i++) call(client, TOKEN_PATH);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void fullBulkheadRejectsOnlyItsOwnCalls() throws Exception {
+        properties.getAdmin().setMaxConcurrentCalls(1);
+        properties.getAdmin().setMaxWait(Duration.ZERO);
+        var client = client(new KeycloakResilienceInterceptor(properties));
+
+        latencyMillis = 500;
+        var started = new CountDownLatch(1);
+        try (var executor = Executors.newSingleThreadExecutor()) {
+            var slowCall = executor.submit(() -> {
+                started.countDown();
+                call(client, ADMIN_PATH);
+            });
+            started.await();
+            Thread.sleep(100);
+
+            assertThrows(KeycloakUnavailableException.class, () -> call(client, ADMIN_PATH));
+            latencyMillis = 0;
+            call(client, TOKEN_PATH);
+            slowCall.get();
+        }
+    }
+
+    private RestClient client(KeycloakResilienceInterceptor interceptor) {
+        var requestFactory = new InterceptingClientHttpRequestFactory(
+                new JdkClientHttpRequestFactory(),
+                List.of(interceptor)
+        );
+        return RestClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    private static void call(RestClient client, String path) {
+        client.post().uri(path).retrieve().toBodilessEntity();
+    }
+
+}
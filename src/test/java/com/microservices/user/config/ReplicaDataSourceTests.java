@@ -0,0 +1,131 @@
+package com.microservices.user.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes transactions across three in-memory H2 databases standing in for a primary and two replicas.
+ */
+class ReplicaDataSourceTests {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private ReplicaDataSource replicaDataSource;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        if (replicaDataSource != null) replicaDataSource.close();
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    void readOnlyTransactionsAreSpreadOverReplicas() {
+        route(DataSourceRoutingConfigurationProperties.Selection.ROUND_ROBIN, Duration.ZERO);
+
+        assertEquals(List.of("REPLICA0", "REPLICA1", "REPLICA0", "REPLICA1"),
+                List.of(read(), read(), read(), read()));
+        assertEquals("PRIMARY", write());
+    }
+
+    @Test
+    void readsGoToThePrimaryRightAfterAWrite() {
+        route(DataSourceRoutingConfigurationProperties.Selection.LEAST_CONNECTIONS, Duration.ofMinutes(1));
+
+        assertEquals("REPLICA0", read());
+        replicaDataSource.markWrite();
+        assertEquals("PRIMARY", read());
+    }
+
+    @Test
+    void onlyCommittedDataChangesOpenTheReadYourWritesWindow() {
+        route(DataSourceRoutingConfigurationProperties.Selection.ROUND_ROBIN, Duration.ofMinutes(1));
+        new JdbcTemplate(pools.getFirst()).execute("CREATE TABLE IF NOT EXISTS event (id INT)");
+
+        readWriteTransaction.executeWithoutResult(status -> {
+        });
+        assertEquals("PRIMARY", write());
+        readWriteTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO event VALUES (1)");
+            status.setRollbackOnly();
+        });
+        assertEquals("REPLICA0", read());
+
+        readWriteTransaction.executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO event VALUES (1)"));
+        assertEquals("PRIMARY", read());
+    }
+
+    @Test
+    void dataChangingStatementsAreRecognized() {
+        assertFalse(WriteTrackingDataSource.isWrite("select * from user"));
+        assertFalse(WriteTrackingDataSource.isWrite("  /* load User */ SELECT id from user for update"));
+        assertTrue(WriteTrackingDataSource.isWrite("insert ignore into user_domain values (?, ?)"));
+        assertTrue(WriteTrackingDataSource.isWrite("/* delete */ delete from outbox_event where id in (?)"));
+        assertTrue(WriteTrackingDataSource.isWrite("with t as (select 1) update user set email = ?"));
+    }
+
+    @Test
+    void unhealthyReplicasAreSkipped() {
+        route(DataSourceRoutingConfigurationProperties.Selection.ROUND_ROBIN, Duration.ZERO);
+
+        pools.get(1).close();
+        assertEquals(List.of("REPLICA1", "REPLICA1"), List.of(read(), read()));
+        pools.get(2).close();
+        assertEquals("PRIMARY", read());
+    }
+
+    private void route(DataSourceRoutingConfigurationProperties.Selection selection,
+                                        Duration readYourWritesWindow) {
+        var primary = pool("primary");
+        replicaDataSource = new ReplicaDataSource(
+                primary,
+                List.of(pool("replica0"), pool("replica1")),
+                selection,
+                readYourWritesWindow,
+                Duration.ofMinutes(1)
+        );
+        var dataSource = new LazyConnectionDataSourceProxy(
+                new WriteTrackingDataSource(primary, replicaDataSource::markWrite));
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+
+        var transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    private String read() {
+        return readOnlyTransaction.execute(status -> databaseName());
+    }
+
+    private String write() {
+        return readWriteTransaction.execute(status -> databaseName());
+    }
+
+    private String databaseName() {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    private HikariDataSource pool(String database) {
+        var pool = new HikariDataSource();
+        pool.setPoolName(database);
+        pool.setJdbcUrl("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        pool.setConnectionTimeout(250);
+        pools.add(pool);
+        return pool;
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.microservices.user.config;
+
+import com.microservices.user.exception.SqlStatementBudgetExceededException;
+import com.microservices.user.repository.DomainRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:statement-budget;MODE=MySQL;NON_KEYWORDS=USER")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SqlStatementBudgetConfiguration.class, SqlStatementBudgetConfigurationProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SqlStatementBudgetFilterTests {
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void statementsOfTheRequestAreAddedAsHeaders() throws Exception {
+        var properties = new SqlStatementBudgetConfigurationProperties();
+        properties.setHeaders(true);
+        var response = new MockHttpServletResponse();
+
+        new SqlStatementBudgetFilter(properties, registry).doFilter(request(), response, (req, res) -> {
+            domainRepository.count();
+            domainRepository.count();
+            res.getWriter().write("ok");
+        });
+
+        assertEquals("2", response.getHeader(SqlStatementBudgetFilter.STATEMENTS_HEADER));
+        assertNotNull(response.getHeader(SqlStatementBudgetFilter.TIME_HEADER));
+    }
+
+    @Test
+    void strictModeFailsRequestsOverTheirEndpointBudget() throws Exception {
+        var properties = new SqlStatementBudgetConfigurationProperties();
+        properties.setStrict(true);
+        properties.getEndpoints().put("GET /api/v1/domain", 1);
+        var filter = new SqlStatementBudgetFilter(properties, registry);
+
+        var exception = assertThrows(SqlStatementBudgetExceededException.class,
+                () -> filter.doFilter(request(), new MockHttpServletResponse(), (req, res) -> {
+                    for (int i = 0; i < 3; i++) domainRepository.count();
+                }));
+        assertTrue(exception.getMessage().startsWith("GET /api/v1/domain ran 3 SQL statements"));
+
+        // a committed response is not failed afterwards, the request is only counted
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request(), response, (req, res) -> {
+            for (int i = 0; i < 3; i++) domainRepository.count();
+            res.flushBuffer();
+        });
+        assertTrue(response.isCommitted());
+        assertEquals(2, registry.get(SqlStatementBudgetFilter.EXCEEDED_METRIC)
+                .tag("endpoint", "GET /api/v1/domain")
+                .counter()
+                .count());
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/v1/domain");
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.microservices.user.controller;
+
+import com.microservices.user.config.KeycloakConfigurationProperties;
+import com.microservices.user.config.WebConfiguration;
+import com.microservices.user.constant.RegisterStatus;
+import com.microservices.user.dto.response.UserRegisterResultResponse;
+import com.microservices.user.exception.InvalidTokenException;
+import com.microservices.user.security.AuthenticatedCaller;
+import com.microservices.user.security.BearerTokenInterceptor;
+import com.microservices.user.security.CallerAccessPolicy;
+import com.microservices.user.security.JwtVerifier;
+import com.microservices.user.service.impl.KeycloakService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Bulk registration requires a verified caller with the bulk registration role,
+ * single registration stays open.
+ */
+@WebMvcTest(AuthController.class)
+@Import({
+        WebConfiguration.class, BearerTokenInterceptor.class, CallerAccessPolicy.class,
+        KeycloakConfigurationProperties.class
+})
+class AuthControllerTests {
+
+    private static final String USERS = """
+            [{"username":"alice","password":"secret","firstName":"Alice","lastName":"Doe",
+              "email":"alice@example.com","gender":"FEMALE","birthdate":"1990-01-01"}]""";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private KeycloakService keycloakService;
+    @MockBean
+    private JwtVerifier jwtVerifier;
+    // required by the JPA auditing enabled on the application class
+    @MockBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
+    @Test
+    void bulkRegistrationWithoutTokenIsUnauthorized() throws Exception {
+        mockMvc.perform(post("/api/v1/user/auth/register/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(USERS))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(keycloakService);
+    }
+
+    @Test
+    void bulkRegistrationWithInvalidTokenIsUnauthorized() throws Exception {
+        when(jwtVerifier.verify("forged")).thenThrow(new InvalidTokenException("Invalid bearer token"));
+
+        mockMvc.perform(post("/api/v1/user/auth/register/batch")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer forged")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(USERS))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(keycloakService);
+    }
+
+    @Test
+    void bulkRegistrationWithoutRoleIsForbidden() throws Exception {
+        when(jwtVerifier.verify("user")).thenReturn(caller(Set.of("offline_access")));
+
+        mockMvc.perform(post("/api/v1/user/auth/register/batch")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer user")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(USERS))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(keycloakService);
+    }
+
+    @Test
+    void bulkRegistrationWithRoleIsServed() throws Exception {
+        when(jwtVerifier.verify("admin")).thenReturn(caller(Set.of("user-admin")));
+        when(keycloakService.registerAll(any(), anyList())).thenReturn(List.of(
+                new UserRegisterResultResponse(0, RegisterStatus.CREATED, "id", null)));
+
+        mockMvc.perform(post("/api/v1/user/auth/register/batch")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer admin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(USERS))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"));
+    }
+
+    @Test
+    void singleRegistrationNeedsNoToken() throws Exception {
+        when(keycloakService.register(any(), any())).thenReturn("id");
+
+        mockMvc.perform(post("/api/v1/user/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(USERS.substring(1, USERS.length() - 1)))
+                .andExpect(status().isCreated());
+    }
+
+    private static AuthenticatedCaller caller(Set<String> roles) {
+        return new AuthenticatedCaller("subject", "admin", "admin@example.com",
+                Instant.now().plusSeconds(300), roles);
+    }
+
+}
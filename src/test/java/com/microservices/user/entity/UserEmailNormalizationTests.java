@@ -0,0 +1,108 @@
+package com.microservices.user.entity;
+
+import com.microservices.user.constant.Gender;
+import com.microservices.user.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Emails stored before normalization are seeded into a database at version 3, the context then applies V4.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserEmailNormalizationTests {
+
+    private static final String URL = "jdbc:h2:mem:email-normalization;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws SQLException {
+        Flyway.configure().dataSource(URL, "sa", "").target("3").load().migrate();
+        try (var connection = DriverManager.getConnection(URL, "sa", "");
+             var statement = connection.prepareStatement(
+                     "INSERT INTO user (id, is_expert, first_name, last_name, gender, email) VALUES (?, false, 'f', 'l', 0, ?)")) {
+            for (var row : List.of(
+                    List.of("mixed", "  Alice@Example.COM "),
+                    List.of("normalized", "bob@example.com"),
+                    List.of("collision-1", "Carol@Example.com"),
+                    List.of("collision-2", " carol@example.com"))) {
+                statement.setString(1, row.get(0));
+                statement.setString(2, row.get(1));
+                statement.executeUpdate();
+            }
+        }
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void emailsAreTrimmedAndLowerCased() {
+        assertEquals("alice@example.com", User.normalizeEmail("  Alice@Example.COM\t"));
+        assertEquals("alice@example.com", User.normalizeEmail("alice@example.com"));
+        assertNull(User.normalizeEmail(null));
+    }
+
+    @Test
+    void migrationNormalizesEmailsAndListsCollisions() {
+        assertEquals("alice@example.com", emailOf("mixed"));
+        assertEquals("bob@example.com", emailOf("normalized"));
+        // colliding rows keep their email until they are merged
+        assertEquals("Carol@Example.com", emailOf("collision-1"));
+        assertEquals(" carol@example.com", emailOf("collision-2"));
+
+        assertEquals(List.of(
+                Map.of("USER_ID", "collision-1", "EMAIL", "Carol@Example.com", "NORMALIZED_EMAIL", "carol@example.com"),
+                Map.of("USER_ID", "collision-2", "EMAIL", " carol@example.com", "NORMALIZED_EMAIL", "carol@example.com")
+        ), jdbcTemplate.queryForList(
+                "SELECT user_id, email, normalized_email FROM user_email_conflict ORDER BY user_id"));
+    }
+
+    @Test
+    void emailsAreNormalizedOnInsertAndUpdate() {
+        var id = UUID.randomUUID().toString();
+        userRepository.save(User.builder()
+                .id(id)
+                .isExpert(false)
+                .firstName("first")
+                .lastName("last")
+                .gender(Gender.FEMALE)
+                .email(" Dana@Example.com ")
+                .build());
+        assertEquals("dana@example.com", emailOf(id));
+
+        var user = userRepository.findById(id).orElseThrow();
+        user.setEmail("DANA.NEW@example.com\n");
+        userRepository.save(user);
+        assertEquals("dana.new@example.com", emailOf(id));
+        assertEquals(id, userRepository.findIdByEmail("dana.new@example.com").orElseThrow());
+    }
+
+    private String emailOf(String userId) {
+        return jdbcTemplate.queryForObject("SELECT email FROM user WHERE id = ?", String.class, userId);
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.microservices.user.entity.id;
+
+import com.microservices.user.config.CacheConfiguration;
+import com.microservices.user.config.IdStorageConfiguration;
+import com.microservices.user.config.IdStorageConfigurationProperties;
+import com.microservices.user.constant.Gender;
+import com.microservices.user.constant.RequestOperator;
+import com.microservices.user.dto.request.DomainCreateRequest;
+import com.microservices.user.dto.request.UserDomainsUpdateRequest;
+import com.microservices.user.entity.User;
+import com.microservices.user.repository.UserRepository;
+import com.microservices.user.service.impl.DomainCatalog;
+import com.microservices.user.service.impl.DomainService;
+import com.microservices.user.service.impl.KeycloakService;
+import com.microservices.user.service.impl.UserService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Migrates a database holding text ids to BINARY(16) ids ({@code jpa.ids.storage=binary}) and uses it.
+ * H2 has no {@code UUID_TO_BIN}, the connection registers {@link IdStorage#toBytes(String)} under that name.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "jpa.ids.storage=binary"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+        UserService.class, DomainService.class, DomainCatalog.class, CacheConfiguration.class,
+        IdStorageConfiguration.class, IdStorageConfigurationProperties.class
+})
+class BinaryIdStorageTests {
+
+    private static final String URL = "jdbc:h2:mem:binary-ids;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1;"
+                                      + "INIT=CREATE ALIAS IF NOT EXISTS UUID_TO_BIN FOR '"
+                                      + IdStorage.class.getName() + ".toBytes'";
+    private static final String USER_ID = UUID.randomUUID().toString();
+    private static final String DOMAIN_ID = TimeOrderedUuidGenerator.next().toString();
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private DomainService domainService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @MockBean
+    private KeycloakService keycloakService;
+
+    /**
+     * Creates the text id schema with a linked user and domain, the context then applies the binary id migration.
+     */
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws SQLException {
+        Flyway.configure().dataSource(URL, "sa", "").target("4").load().migrate();
+        try (var connection = DriverManager.getConnection(URL, "sa", "");
+             var statement = connection.createStatement()) {
+            statement.execute("INSERT INTO domain (id, name) VALUES ('" + DOMAIN_ID + "', 'Databases')");
+            statement.execute("INSERT INTO user (id, is_expert, first_name, last_name, gender, email) "
+                              + "VALUES ('" + USER_ID + "', true, 'Ada', 'Lovelace', 1, 'ada@example.com')");
+            statement.execute("INSERT INTO user_domain (user_id, domain_id) VALUES ('" + USER_ID + "', '" + DOMAIN_ID + "')");
+        }
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void migratedIdsAreReadAndWrittenAsBinary() {
+        assertEquals(List.of("BINARY"), jdbcTemplate.queryForList("""
+                SELECT DISTINCT data_type FROM information_schema.columns
+                WHERE table_name IN ('USER', 'DOMAIN', 'USER_DOMAIN') AND column_name IN ('ID', 'USER_ID', 'DOMAIN_ID')""",
+                String.class));
+
+        var user = userService.getUserById(USER_ID);
+        assertEquals(List.of(DOMAIN_ID), user.domainIds());
+        assertEquals("Databases", domainService.getDomain(DOMAIN_ID).name());
+        assertEquals(1, userService.getAllExpertsByDomain(DOMAIN_ID, 0, 10).content().size());
+
+        var newDomainId = domainService.createDomain(new DomainCreateRequest("Compilers", null));
+        userService.updateUserDomains(USER_ID,
+                new UserDomainsUpdateRequest(RequestOperator.ADD, Set.of(newDomainId)));
+        var newUserId = UUID.randomUUID().toString();
+        userRepository.insertAll(List.of(User.builder()
+                .id(newUserId)
+                .isExpert(false)
+                .firstName("Grace")
+                .lastName("Hopper")
+                .gender(Gender.FEMALE)
+                .email("grace@example.com")
+                .build()), 1);
+
+        assertEquals(Set.of(DOMAIN_ID, newDomainId), Set.copyOf(userService.getUserById(USER_ID).domainIds()));
+        assertEquals("grace@example.com", userService.getUserById(newUserId).email());
+        assertEquals(IdStorage.toBytes(newUserId).length, jdbcTemplate.queryForObject(
+                "SELECT octet_length(id) FROM user WHERE email = 'grace@example.com'", Integer.class));
+    }
+
+}
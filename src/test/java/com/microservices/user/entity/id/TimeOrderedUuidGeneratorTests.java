@@ -0,0 +1,29 @@
+package com.microservices.user.entity.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeOrderedUuidGeneratorTests {
+
+    @Test
+    void idsAreVersion7AndIncreaseInStringOrder() {
+        var before = System.currentTimeMillis();
+        var ids = new ArrayList<String>();
+        // more ids than the counter holds in one millisecond
+        for (int i = 0; i < 20_000; i++) ids.add(TimeOrderedUuidGenerator.next().toString());
+
+        for (int i = 1; i < ids.size(); i++)
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, ids.get(i - 1) + " >= " + ids.get(i));
+
+        var first = UUID.fromString(ids.getFirst());
+        assertEquals(7, first.version());
+        assertEquals(2, first.variant());
+        assertTrue(first.getMostSignificantBits() >>> 16 >= before);
+    }
+
+}
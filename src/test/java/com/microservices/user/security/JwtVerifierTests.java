@@ -0,0 +1,174 @@
+package com.microservices.user.security;
+
+import com.microservices.user.config.KeycloakConfigurationProperties;
+import com.microservices.user.exception.InvalidTokenException;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies tokens against a JWKS served by a local HTTP server standing in for the realm.
+ */
+class JwtVerifierTests {
+
+    private static final String CLIENT_ID = "user-service";
+
+    private final AtomicInteger jwksRequests = new AtomicInteger();
+    private HttpServer server;
+    private String issuer;
+    private RSAKey key;
+    private volatile JWKSet jwkSet;
+    private JwtVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        key = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        jwkSet = new JWKSet(key.toPublicJWK());
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/realms/test/protocol/openid-connect/certs", exchange -> {
+            jwksRequests.incrementAndGet();
+            var body = jwkSet.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        var properties = new KeycloakConfigurationProperties();
+        properties.setServerUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        properties.setRealm("test");
+        properties.setClientId(CLIENT_ID);
+        issuer = properties.getServerUrl() + "/realms/test";
+        verifier = new JwtVerifier(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void validAccessTokenIsAccepted() throws Exception {
+        var caller = verifier.verify(sign(key, claims -> claims
+                .claim("realm_access", Map.of("roles", List.of("user-admin", "offline_access")))));
+
+        assertEquals("subject", caller.subject());
+        assertEquals("alice", caller.username());
+        assertEquals("alice@example.com", caller.email());
+        assertEquals(Set.of("user-admin", "offline_access"), caller.roles());
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        assertRejected(() -> sign(key, claims -> claims
+                .expirationTime(Date.from(Instant.now().minus(5, ChronoUnit.MINUTES)))));
+    }
+
+    @Test
+    void tokenOfAnotherIssuerIsRejected() {
+        assertRejected(() -> sign(key, claims -> claims.issuer("http://127.0.0.1/realms/other")));
+    }
+
+    @Test
+    void forgedSignatureIsRejected() {
+        assertRejected(() -> sign(new RSAKeyGenerator(2048).keyID(key.getKeyID()).generate(), claims -> claims));
+    }
+
+    @Test
+    void unknownKeyIdReloadsTheKeySet() throws Exception {
+        verifier.verify(sign(key, claims -> claims));
+        assertEquals(1, jwksRequests.get());
+
+        var rotated = new RSAKeyGenerator(2048).keyID("key-2").generate();
+        jwkSet = new JWKSet(List.of(key.toPublicJWK(), rotated.toPublicJWK()));
+
+        assertEquals("subject", verifier.verify(sign(rotated, claims -> claims)).subject());
+        assertEquals(2, jwksRequests.get());
+    }
+
+    @Test
+    void symmetricallySignedTokenIsRejected() {
+        assertRejected(() -> sign(new MACSigner(new byte[32]), JWSAlgorithm.HS256, key.getKeyID(), claims -> claims));
+    }
+
+    @Test
+    void idTokenIsRejected() {
+        assertRejected(() -> sign(key, claims -> claims.claim("typ", "ID")));
+    }
+
+    @Test
+    void tokenOfAnotherClientIsRejected() {
+        assertRejected(() -> sign(key, claims -> claims.claim("azp", "other-client")));
+    }
+
+    @Test
+    void tokenWithThisClientAsAudienceIsAccepted() throws Exception {
+        var token = sign(key, claims -> claims.claim("azp", "frontend").audience(List.of("account", CLIENT_ID)));
+
+        assertEquals("subject", verifier.verify(token).subject());
+    }
+
+    private void assertRejected(TokenFactory token) {
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(token.create()));
+    }
+
+    private String sign(RSAKey signingKey, UnaryOperator<JWTClaimsSet.Builder> claims) throws JOSEException {
+        return sign(new RSASSASigner(signingKey), JWSAlgorithm.RS256, signingKey.getKeyID(), claims);
+    }
+
+    /**
+     * Signs a Keycloak-like access token, {@code claims} overrides the defaults.
+     */
+    private String sign(JWSSigner signer, JWSAlgorithm algorithm, String keyId,
+                        UnaryOperator<JWTClaimsSet.Builder> claims) throws JOSEException {
+        var jwt = new SignedJWT(
+                new JWSHeader.Builder(algorithm).keyID(keyId).build(),
+                claims.apply(new JWTClaimsSet.Builder()
+                        .issuer(issuer)
+                        .subject("subject")
+                        .claim("typ", "Bearer")
+                        .claim("azp", CLIENT_ID)
+                        .claim("preferred_username", "alice")
+                        .claim("email", "alice@example.com")
+                        .expirationTime(Date.from(Instant.now().plus(5, ChronoUnit.MINUTES)))
+                ).build()
+        );
+        jwt.sign(signer);
+        return jwt.serialize();
+    }
+
+    @FunctionalInterface
+    private interface TokenFactory {
+
+        String create() throws Exception;
+
+    }
+
+}
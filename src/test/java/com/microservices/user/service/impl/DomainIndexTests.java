@@ -0,0 +1,113 @@
+package com.microservices.user.service.impl;
+
+import com.microservices.user.dto.response.DomainResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DomainIndexTests {
+
+    private static final String[] WORDS = {
+            "Java", "Spring", "Data", "Machine", "Learning", "Cloud", "Security", "Networks", "DevOps", "AI"
+    };
+
+    private final List<DomainResponse> domains = createDomains();
+    private final DomainIndex index = new DomainIndex(domains);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a", "J", "ai", "Spr", "ing", "java spring", "CLOUD sec", "learning data", "xyz", "ss"})
+    void searchMatchesContainsIgnoreCase(String query) {
+        var expected = domains.stream()
+                .filter(domain -> domain.name().toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT)))
+                .sorted(nameOrder())
+                .toList();
+
+        var page = index.search(query, 0, domains.size());
+
+        assertEquals(expected.size(), page.totalElements());
+        assertEquals(expected, page.content());
+    }
+
+    @Test
+    void searchPagesInNameOrder() {
+        var all = index.search("a", 0, domains.size()).content();
+
+        var page = index.search("a", 2, 7);
+
+        assertEquals(all.subList(14, 21), page.content());
+        assertEquals((all.size() + 6) / 7, page.totalPages());
+        assertEquals(false, page.first());
+    }
+
+    @Test
+    void emptyQueryListsEveryDomain() {
+        var page = index.search("", 0, 5);
+
+        assertEquals(domains.size(), page.totalElements());
+        assertEquals(domains.stream().sorted(nameOrder()).limit(5).toList(), page.content());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "a", "java spring"})
+    void scrollVisitsEveryMatchOnceInBothDirections(String query) {
+        var expected = index.search(query, 0, domains.size()).content();
+
+        var forward = new ArrayList<DomainResponse>();
+        var window = index.scroll(query, null, false, 7);
+        forward.addAll(window.content());
+        while (window.hasNext()) {
+            var last = window.content().getLast();
+            window = index.scroll(query, new DomainIndex.SortKey(last.name(), last.id()), false, 7);
+            forward.addAll(window.content());
+        }
+        assertEquals(expected, forward);
+        assertEquals(expected.size(), window.total());
+
+        var backward = new ArrayList<DomainResponse>(window.content());
+        while (window.hasPrevious()) {
+            var first = window.content().getFirst();
+            window = index.scroll(query, new DomainIndex.SortKey(first.name(), first.id()), true, 7);
+            backward.addAll(0, window.content());
+        }
+        assertEquals(expected, backward);
+    }
+
+    @Test
+    void suggestReturnsPrefixMatchesInNameOrder() {
+        var suggestions = index.suggest("spRing", 5);
+
+        assertTrue(suggestions.size() <= 5 && !suggestions.isEmpty());
+        assertEquals(domains.stream()
+                .filter(domain -> domain.name().toLowerCase(Locale.ROOT).startsWith("spring"))
+                .sorted(nameOrder())
+                .limit(5)
+                .toList(), suggestions);
+        assertTrue(index.suggest("zzz", 5).isEmpty());
+    }
+
+    private static Comparator<DomainResponse> nameOrder() {
+        return Comparator.comparing((DomainResponse domain) -> domain.name().toLowerCase(Locale.ROOT))
+                .thenComparing(DomainResponse::id);
+    }
+
+    private static List<DomainResponse> createDomains() {
+        var random = new Random(42);
+        var domains = new ArrayList<DomainResponse>();
+        for (int i = 0; i < 500; i++) {
+            var name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+            domains.add(new DomainResponse(UUID.randomUUID().toString(), name, null));
+        }
+        return domains;
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.microservices.user.service.impl;
+
+import com.microservices.user.config.CacheConfiguration;
+import com.microservices.user.config.DataSourceRoutingConfiguration;
+import com.microservices.user.config.DataSourceRoutingConfigurationProperties;
+import com.microservices.user.config.KeycloakConfigurationProperties;
+import com.microservices.user.constant.Gender;
+import com.microservices.user.entity.User;
+import com.microservices.user.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Polls the outbox with a read replica configured, the primary and the replica are two in-memory databases
+ * migrated before the context starts, so that the migration does not open the read-your-writes window.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "datasource.routing.read-your-writes-window=1m"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+        KeycloakOutboxWorker.class, KeycloakConfigurationProperties.class,
+        CacheConfiguration.class, DataSourceRoutingConfiguration.class, DataSourceRoutingConfigurationProperties.class
+})
+class KeycloakOutboxWorkerRoutingTests {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:outbox-primary;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:outbox-replica;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private KeycloakOutboxWorker worker;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @MockBean
+    private KeycloakService keycloakService;
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) {
+        Flyway.configure().dataSource(PRIMARY_URL, "sa", "").load().migrate();
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+        registry.add("spring.datasource.url", () -> PRIMARY_URL);
+        registry.add("datasource.routing.replicas[0].url", () -> REPLICA_URL);
+    }
+
+    @Test
+    void idlePollsKeepReadsOnTheReplica() {
+        for (int i = 0; i < 3; i++) worker.poll();
+
+        verifyNoInteractions(keycloakService);
+        assertEquals("OUTBOX-REPLICA", readDatabase());
+
+        // a committed write still opens the read-your-writes window
+        var id = UUID.randomUUID().toString();
+        userRepository.save(User.builder()
+                .id(id)
+                .isExpert(false)
+                .firstName("first")
+                .lastName("last")
+                .gender(Gender.FEMALE)
+                .email(id + "@example.com")
+                .build());
+
+        assertEquals("OUTBOX-PRIMARY", readDatabase());
+    }
+
+    private String readDatabase() {
+        var transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+
+}
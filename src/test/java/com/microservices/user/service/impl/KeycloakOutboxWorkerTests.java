@@ -0,0 +1,134 @@
+package com.microservices.user.service.impl;
+
+import com.microservices.user.config.CacheConfiguration;
+import com.microservices.user.config.KeycloakConfigurationProperties;
+import com.microservices.user.constant.Gender;
+import com.microservices.user.constant.OutboxEventStatus;
+import com.microservices.user.constant.OutboxEventType;
+import com.microservices.user.entity.User;
+import com.microservices.user.exception.KeycloakErrorException;
+import com.microservices.user.repository.OutboxEventRepository;
+import com.microservices.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs without a test transaction, so that the worker sees the committed outbox as in production.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL;NON_KEYWORDS=USER",
+        "keycloak.outbox.batch-size=2",
+        "keycloak.outbox.max-attempts=2",
+        "keycloak.outbox.initial-backoff=0s"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+        UserService.class, KeycloakOutboxWorker.class,
+        KeycloakConfigurationProperties.class, CacheConfiguration.class
+})
+class KeycloakOutboxWorkerTests {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private KeycloakOutboxWorker worker;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @MockBean
+    private KeycloakService keycloakService;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void deletingUserCommitsWithoutCallingKeycloak() {
+        var userId = createUser();
+
+        userService.deleteUser(userId);
+
+        verifyNoInteractions(keycloakService);
+        assertFalse(userRepository.existsById(userId));
+        var event = outboxEventRepository.findAll().getFirst();
+        assertEquals(OutboxEventType.DELETE_KEYCLOAK_USER, event.getType());
+        assertEquals(userId, event.getAggregateId());
+        assertEquals(OutboxEventStatus.PENDING, event.getStatus());
+    }
+
+    @Test
+    void deliveredEventsAreDeletedInBatches() {
+        for (int i = 0; i < 3; i++) userService.deleteUser(createUser());
+
+        assertEquals(2, worker.processBatch());
+        assertEquals(1, worker.processBatch());
+        assertEquals(0, worker.processBatch());
+
+        verify(keycloakService, times(3)).deleteUser(anyString());
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    void userMissingFromKeycloakCountsAsDelivered() {
+        userService.deleteUser(createUser());
+        when(keycloakService.deleteUser(anyString()))
+                .thenThrow(new KeycloakErrorException("not found", null, HttpStatus.NOT_FOUND, "not found"));
+
+        worker.processBatch();
+
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    void failedEventsAreRetriedThenGivenUp() {
+        userService.deleteUser(createUser());
+        when(keycloakService.deleteUser(anyString())).thenThrow(new IllegalStateException("unavailable"));
+
+        worker.processBatch();
+        var retried = outboxEventRepository.findAll().getFirst();
+        assertEquals(OutboxEventStatus.PENDING, retried.getStatus());
+        assertEquals(1, retried.getAttempts());
+        assertEquals("unavailable", retried.getLastError());
+        assertFalse(retried.getNextAttemptAt().isAfter(Instant.now()));
+
+        worker.processBatch();
+        var failed = outboxEventRepository.findAll().getFirst();
+        assertEquals(OutboxEventStatus.FAILED, failed.getStatus());
+        assertEquals(2, failed.getAttempts());
+
+        assertEquals(0, worker.processBatch());
+        verify(keycloakService, times(2)).deleteUser(anyString());
+    }
+
+    private String createUser() {
+        var id = UUID.randomUUID().toString();
+        userRepository.save(User.builder()
+                .id(id)
+                .isExpert(false)
+                .firstName("first")
+                .lastName("last")
+                .gender(Gender.MALE)
+                .email(id + "@example.com")
+                .build());
+        return id;
+    }
+
+}
@@ -0,0 +1,196 @@
+package com.microservices.user.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.user.config.KeycloakConfigurationProperties;
+import com.microservices.user.constant.Gender;
+import com.microservices.user.constant.RegisterStatus;
+import com.microservices.user.dto.request.UserRegisterRequest;
+import com.microservices.user.dto.response.UserRegisterResultResponse;
+import com.microservices.user.entity.User;
+import com.microservices.user.repository.UserRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Registers users against a local HTTP server standing in for the Keycloak admin API,
+ * the users are inserted into an in-memory database.
+ * The stub answers by username: "conflict" gets 409, "rejected" 400 and "broken" 500,
+ * other users are created.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk-registration;MODE=MySQL;NON_KEYWORDS=USER"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class KeycloakServiceBulkRegistrationTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<String, String> keycloakUsers = new ConcurrentHashMap<>();
+    private final Queue<String> deletedUsers = new ConcurrentLinkedQueue<>();
+    private HttpServer server;
+    private KeycloakTokenManager tokenManager;
+    private KeycloakService keycloakService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        userRepository.deleteAll();
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/realms/test/protocol/openid-connect/token", exchange -> respond(exchange, 200,
+                "{\"access_token\":\"service-token\",\"expires_in\":300,\"token_type\":\"Bearer\"}"));
+        server.createContext("/admin/realms/test/users", this::handleUsers);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        var properties = new KeycloakConfigurationProperties();
+        properties.setServerUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        properties.setRealm("test");
+        properties.setClientId("client");
+        properties.setClientSecret("secret");
+        properties.getBulkRegistration().setParallelism(4);
+        properties.getBulkRegistration().setInsertBatchSize(10);
+
+        var requestFactory = new JdkClientHttpRequestFactory();
+        var environment = new MockEnvironment();
+        tokenManager = new KeycloakTokenManager(properties, requestFactory, environment);
+        keycloakService = new KeycloakService(properties, userRepository, tokenManager, requestFactory,
+                Validation.buildDefaultValidatorFactory().getValidator(), environment);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenManager.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void everyItemGetsItsOwnResult() {
+        var results = keycloakService.registerAll(true, List.of(
+                request("alice", "alice@example.com"),
+                request("conflict", "conflict@example.com"),
+                request("rejected", "rejected@example.com"),
+                request("broken", "broken@example.com"),
+                request("blank-email", " "),
+                request("bob", "Bob@Example.com")
+        ));
+
+        assertEquals(List.of(RegisterStatus.CREATED, RegisterStatus.CONFLICT, RegisterStatus.INVALID,
+                        RegisterStatus.FAILED, RegisterStatus.INVALID, RegisterStatus.CREATED),
+                results.stream().map(UserRegisterResultResponse::status).toList());
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), results.stream().map(UserRegisterResultResponse::index).toList());
+        assertEquals("User exists with same username", results.get(1).message());
+        assertEquals("invalid email", results.get(2).message());
+        assertEquals("email cannot be blank.", results.get(4).message());
+        // invalid items are not sent to Keycloak
+        assertFalse(keycloakUsers.containsValue("blank-email"));
+
+        var alice = userRepository.findById(results.getFirst().userId()).orElseThrow();
+        assertTrue(alice.getIsExpert());
+        assertEquals("bob@example.com", userRepository.findById(results.get(5).userId()).orElseThrow().getEmail());
+        assertEquals(2, userRepository.count());
+        assertTrue(deletedUsers.isEmpty());
+    }
+
+    @Test
+    void rejectedBatchIsInsertedOneByOneAndFailuresAreRemovedFromKeycloak() {
+        userRepository.save(User.builder()
+                .id(UUID.randomUUID().toString())
+                .isExpert(false)
+                .firstName("existing")
+                .lastName("user")
+                .gender(Gender.FEMALE)
+                .email("taken@example.com")
+                .build());
+
+        var results = keycloakService.registerAll(false, List.of(
+                request("alice", "alice@example.com"),
+                request("taken", "taken@example.com"),
+                request("bob", "bob@example.com")
+        ));
+
+        assertEquals(List.of(RegisterStatus.CREATED, RegisterStatus.FAILED, RegisterStatus.CREATED),
+                results.stream().map(UserRegisterResultResponse::status).toList());
+        assertEquals("Cannot save user data.", results.get(1).message());
+        assertNull(results.get(1).userId());
+        assertTrue(userRepository.existsById(results.getFirst().userId()));
+        assertTrue(userRepository.existsById(results.get(2).userId()));
+        assertEquals(3, userRepository.count());
+
+        var takenId = keycloakUsers.entrySet().stream()
+                .filter(user -> user.getValue().equals("taken"))
+                .map(Map.Entry::getKey)
+                .findFirst().orElseThrow();
+        assertEquals(List.of(takenId), List.copyOf(deletedUsers));
+    }
+
+    private void handleUsers(HttpExchange exchange) throws IOException {
+        if (exchange.getRequestMethod().equals("DELETE")) {
+            var path = exchange.getRequestURI().getPath();
+            deletedUsers.add(path.substring(path.lastIndexOf('/') + 1));
+            respond(exchange, 204, null);
+            return;
+        }
+
+        var username = MAPPER.readTree(exchange.getRequestBody()).get("username").asText();
+        switch (username) {
+            case "conflict" -> respond(exchange, 409, "{\"errorMessage\":\"User exists with same username\"}");
+            case "rejected" -> respond(exchange, 400,
+                    "{\"field\":\"email\",\"errorMessage\":\"invalid email\",\"params\":[]}");
+            case "broken" -> respond(exchange, 500, "{}");
+            default -> {
+                var id = UUID.randomUUID().toString();
+                keycloakUsers.put(id, username);
+                exchange.getResponseHeaders().add("Location",
+                        "http://127.0.0.1/admin/realms/test/users/" + id);
+                respond(exchange, 201, null);
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            var bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+
+    private static UserRegisterRequest request(String username, String email) {
+        return new UserRegisterRequest(username, "password", "First", "Last", email,
+                Gender.MALE, LocalDate.of(1990, 1, 1));
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.microservices.user.service.impl;
+
+import com.microservices.user.config.KeycloakConfigurationProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KeycloakTokenManagerTests {
+
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private HttpServer server;
+    private KeycloakTokenManager tokenManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/realms/test/protocol/openid-connect/token", exchange -> {
+            var count = tokenRequests.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            var body = ("{\"access_token\":\"token-" + count + "\",\"expires_in\":300,\"token_type\":\"Bearer\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        var properties = new KeycloakConfigurationProperties();
+        properties.setServerUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        properties.setRealm("test");
+        properties.setClientId("client");
+        properties.setClientSecret("secret");
+        tokenManager = new KeycloakTokenManager(properties, new JdkClientHttpRequestFactory(), new MockEnvironment());
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenManager.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void concurrentCallersShareOneTokenRequest() throws Exception {
+        var callers = 50;
+        var start = new CountDownLatch(1);
+        try (var executor = Executors.newFixedThreadPool(callers)) {
+            var results = new ArrayList<Future<String>>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return tokenManager.getAuthorizationHeader();
+                }));
+            }
+            start.countDown();
+            for (var result : results) assertEquals("Bearer token-1", result.get());
+        }
+
+        assertEquals(1, tokenRequests.get());
+        assertEquals(1, tokenManager.getRefreshCount());
+        assertEquals(callers - 1, tokenManager.getHitCount());
+        assertEquals(0, tokenManager.getFailureCount());
+    }
+
+}
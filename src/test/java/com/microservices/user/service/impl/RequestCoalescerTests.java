@@ -0,0 +1,72 @@
+package com.microservices.user.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTests {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void concurrentCallsWithTheSameKeyShareOneExecution() throws Exception {
+        var coalescer = new RequestCoalescer<String>(Duration.ofSeconds(2), 100);
+        var callers = 20;
+        var start = new CountDownLatch(1);
+        try (var executor = Executors.newFixedThreadPool(callers)) {
+            var results = new ArrayList<Future<String>>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return coalescer.execute("token", this::slowCall);
+                }));
+            }
+            start.countDown();
+            for (var result : results) assertEquals("response-1", result.get());
+        }
+
+        assertEquals(1, calls.get());
+        // within the window
+        assertEquals("response-1", coalescer.execute("token", this::slowCall));
+        assertEquals("response-2", coalescer.execute("other token", this::slowCall));
+    }
+
+    @Test
+    void resultsExpireAfterTheWindow() throws Exception {
+        var coalescer = new RequestCoalescer<String>(Duration.ofMillis(50), 100);
+
+        assertEquals("response-1", coalescer.execute("token", () -> "response-" + calls.incrementAndGet()));
+        Thread.sleep(100);
+
+        assertEquals("response-2", coalescer.execute("token", () -> "response-" + calls.incrementAndGet()));
+    }
+
+    @Test
+    void failuresAreNotKept() {
+        var coalescer = new RequestCoalescer<String>(Duration.ofSeconds(2), 100);
+
+        assertThrows(IllegalStateException.class, () -> coalescer.execute("token", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("rejected");
+        }));
+
+        assertEquals("response-2", coalescer.execute("token", this::slowCall));
+    }
+
+    private String slowCall() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "response-" + calls.incrementAndGet();
+    }
+
+}
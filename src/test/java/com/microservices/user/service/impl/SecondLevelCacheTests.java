@@ -0,0 +1,114 @@
+package com.microservices.user.service.impl;
+
+import com.microservices.user.config.CacheConfiguration;
+import com.microservices.user.config.SecondLevelCacheConfiguration;
+import com.microservices.user.config.SecondLevelCacheConfigurationProperties;
+import com.microservices.user.constant.Gender;
+import com.microservices.user.constant.RequestOperator;
+import com.microservices.user.dto.request.DomainUpdateRequest;
+import com.microservices.user.dto.request.UserDomainsUpdateRequest;
+import com.microservices.user.entity.Domain;
+import com.microservices.user.entity.User;
+import com.microservices.user.repository.DomainRepository;
+import com.microservices.user.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs without a test transaction, so that writes commit and the cache sees them as in production.
+ * The service caches are enabled as well, user reads are served by them.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:second-level-cache;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "jpa.second-level-cache.enabled=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+        DomainService.class, DomainCatalog.class, UserService.class, CacheConfiguration.class,
+        SecondLevelCacheConfiguration.class, SecondLevelCacheConfigurationProperties.class
+})
+class SecondLevelCacheTests {
+
+    @Autowired
+    private DomainService domainService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private DomainRepository domainRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @MockBean
+    private KeycloakService keycloakService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void domainReadsAreServedFromTheCacheAndSeeUpdates() {
+        var domainId = domainRepository.save(Domain.builder().name("cached").build()).getId();
+
+        statistics.clear();
+        domainService.getDomain(domainId);
+        domainService.getDomain(domainId);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+
+        domainService.updateDomain(domainId, new DomainUpdateRequest("renamed", null));
+        assertEquals("renamed", domainService.getDomain(domainId).name());
+    }
+
+    @Test
+    void userReadsSeeMembershipChanges() {
+        var first = domainRepository.save(Domain.builder().name("first").build());
+        var second = domainRepository.save(Domain.builder().name("second").build());
+        var userId = userRepository.save(User.builder()
+                .id(UUID.randomUUID().toString())
+                .firstName("first")
+                .lastName("last")
+                .gender(Gender.MALE)
+                .email(UUID.randomUUID() + "@example.com")
+                .domains(new ArrayList<>(List.of(first)))
+                .build()).getId();
+        assertEquals(List.of(first.getId()), userService.getUserById(userId).domainIds());
+
+        statistics.clear();
+        assertEquals(List.of(first.getId()), userService.getUserById(userId).domainIds());
+        assertEquals(0, statistics.getPrepareStatementCount(), "the user was not cached");
+
+        // the join table batches bypass Hibernate, the cached response is evicted by the service
+        userService.updateUserDomains(userId, new UserDomainsUpdateRequest(RequestOperator.ADD, Set.of(second.getId())));
+        assertEquals(Set.of(first.getId(), second.getId()), Set.copyOf(userService.getUserById(userId).domainIds()));
+
+        userService.updateUserDomains(userId, new UserDomainsUpdateRequest(RequestOperator.REMOVE, Set.of(first.getId())));
+        assertEquals(List.of(second.getId()), userService.getUserById(userId).domainIds());
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.microservices.user.service.impl;
+
+import com.microservices.user.constant.Gender;
+import com.microservices.user.dto.response.DomainResponse;
+import com.microservices.user.dto.response.PagingObjectsResponse;
+import com.microservices.user.dto.response.UserResponse;
+import com.microservices.user.entity.Domain;
+import com.microservices.user.repository.projection.UserDomainId;
+import com.microservices.user.repository.projection.UserRow;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of the service code run on every read once the database answered:
+ * row to response mapping, paging response construction
+ * and the path check deciding whether a Keycloak request carries the service account token.
+ * Lives next to the services because the mappers are package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceMappingBenchmark {
+
+    private static final int DOMAINS_PER_USER = 5;
+    private static final String[] KEYCLOAK_PATHS = {
+            "/realms/bench/protocol/openid-connect/token",
+            "/admin/realms/bench/users",
+            "/admin/realms/bench/users/2f0c9a4e-8f0e-4f4c-9d4e-8a0f7c1b2d3e",
+            "/admin/realms/bench/users/2f0c9a4e-8f0e-4f4c-9d4e-8a0f7c1b2d3e/logout"
+    };
+
+    @Param({"1", "20", "100"})
+    private int pageSize;
+
+    private List<UserRow> users;
+    private List<UserDomainId> userDomainIds;
+    private Domain domain;
+    private PageImpl<UserRow> page;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        users = new ArrayList<>(pageSize);
+        userDomainIds = new ArrayList<>(pageSize * DOMAINS_PER_USER);
+        for (int i = 0; i < pageSize; i++) {
+            var user = new UserRow(
+                    new UUID(random.nextLong(), random.nextLong()).toString(),
+                    "first-" + i,
+                    "last-" + i,
+                    Gender.values()[random.nextInt(Gender.values().length)],
+                    LocalDate.of(1970 + random.nextInt(40), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                    "user-" + i + "@example.com"
+            );
+            users.add(user);
+            for (int j = 0; j < DOMAINS_PER_USER; j++)
+                userDomainIds.add(new UserDomainId(user.id(), new UUID(random.nextLong(), random.nextLong()).toString()));
+        }
+        domain = Domain.builder()
+                .id(UUID.randomUUID().toString())
+                .name("machine learning")
+                .description("Supervised and unsupervised learning")
+                .build();
+        page = new PageImpl<>(users, PageRequest.of(3, pageSize, Sort.by("id")), 10_000);
+    }
+
+    @Benchmark
+    public List<UserResponse> userResponses() {
+        return UserService.toUserResponses(users, userDomainIds);
+    }
+
+    @Benchmark
+    public DomainResponse domainResponse() {
+        return DomainService.mapDomainToResponse(domain);
+    }
+
+    @Benchmark
+    public PagingObjectsResponse<UserResponse> pagingResponse() {
+        return new PagingObjectsResponse<>(
+                page.getTotalPages(),
+                page.getTotalElements(),
+                page.getNumber(),
+                page.getSize(),
+                page.getNumberOfElements(),
+                page.isFirst(),
+                page.isLast(),
+                UserService.toUserResponses(page.getContent(), userDomainIds)
+        );
+    }
+
+    @Benchmark
+    public void serviceAccountTokenPathCheck(Blackhole blackhole) {
+        for (var path : KEYCLOAK_PATHS)
+            blackhole.consume(KeycloakService.requiresServiceAccountToken(path));
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.microservices.user.service.impl;
+
+import com.microservices.user.config.CacheConfiguration;
+import com.microservices.user.constant.Gender;
+import com.microservices.user.constant.RequestOperator;
+import com.microservices.user.dto.request.UserDomainsUpdateRequest;
+import com.microservices.user.entity.Domain;
+import com.microservices.user.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Guards the user read paths against N+1 queries:
+ * the number of SQL statements must not depend on the number of users mapped.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// caches are replaced by a no-op cache manager, so every call reaches the database
+@Import({UserService.class, CacheConfiguration.class})
+class UserServiceStatementCountTests {
+
+    private static final int DOMAINS_PER_USER = 3;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @MockBean
+    private KeycloakService keycloakService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 1000})
+    void listingExpertsRunsConstantStatements(int expertCount) {
+        var domains = createDomains();
+        createExperts(expertCount, domains);
+
+        statistics.clear();
+        var page = userService.getAllExpertsByDomain(domains.getFirst().getId(), 0, expertCount);
+
+        assertEquals(expertCount, page.content().size());
+        assertEquals(DOMAINS_PER_USER, page.content().getFirst().domainIds().size());
+        // domain exists, page, count, domain ids of the page
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 1000})
+    void scrollingExpertsRunsConstantStatements(int expertCount) {
+        var domains = createDomains();
+        createExperts(expertCount, domains);
+
+        statistics.clear();
+        var page = userService.scrollExpertsByDomain(domains.getFirst().getId(), null, expertCount);
+
+        assertEquals(expertCount, page.content().size());
+        // domain exists, page, domain ids of the page
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 1000})
+    void gettingUserRunsConstantStatements(int userCount) {
+        var domains = createDomains();
+        var users = createExperts(userCount, domains);
+
+        statistics.clear();
+        var user = userService.getUserById(users.getLast().getId());
+
+        assertEquals(DOMAINS_PER_USER, user.domainIds().size());
+        // user, domain ids
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 1000})
+    void updatingDomainsRunsStatementsOfTheDeltaOnly(int domainCount) {
+        var domains = createDomains(domainCount);
+        var userId = createExperts(1, domains).getFirst().getId();
+        var added = createDomains(2).stream().map(Domain::getId).collect(Collectors.toSet());
+        var existing = domains.getFirst().getId();
+        entityManager.flush();
+
+        statistics.clear();
+        var addition = new HashSet<>(added);
+        addition.add(existing);
+        userService.updateUserDomains(userId, new UserDomainsUpdateRequest(RequestOperator.ADD, addition));
+        // user exists; the join table batch runs on JDBC, the user and its domains are never loaded
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(domainCount + 2, userService.getUserById(userId).domainIds().size());
+
+        statistics.clear();
+        userService.updateUserDomains(userId, new UserDomainsUpdateRequest(RequestOperator.REMOVE, addition));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(domainCount - 1, userService.getUserById(userId).domainIds().size());
+    }
+
+    private List<Domain> createDomains() {
+        return createDomains(DOMAINS_PER_USER);
+    }
+
+    private List<Domain> createDomains(int count) {
+        var domains = new ArrayList<Domain>();
+        for (int i = 0; i < count; i++) {
+            var domain = Domain.builder().name("domain-" + i).build();
+            entityManager.persist(domain);
+            domains.add(domain);
+        }
+        return domains;
+    }
+
+    private List<User> createExperts(int count, List<Domain> domains) {
+        var users = new ArrayList<User>();
+        for (int i = 0; i < count; i++) {
+            var user = User.builder()
+                    .id(UUID.randomUUID().toString())
+                    .isExpert(true)
+                    .firstName("first-" + i)
+                    .lastName("last-" + i)
+                    .gender(Gender.FEMALE)
+                    .email("expert-" + i + "@example.com")
+                    .domains(new ArrayList<>(domains))
+                    .build();
+            entityManager.persist(user);
+            users.add(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return users;
+    }
+
+}